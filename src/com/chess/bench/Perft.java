@@ -0,0 +1,319 @@
+package com.chess.bench;
+
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.player.MoveTransition;
+import com.chess.pgn.FenUtilities;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class Perft {
+    // Dem so the co o do sau n bang Board/Player.makeMove de kiem tra bo sinh nuoc di va do toc do (nodes/s).
+    // -bitboard: dem bang BitBoard.generateLegalMoves/makeMove/unmakeMove, dung duong ma MiniMax tim kiem.
+    // Chay: java com.chess.bench.Perft [-fen "<fen>"] [-depth n] [-divide] [-parallel] [-hash mb] [-bitboard]
+    // Khong co -fen thi chay cac the co chuan va so voi ket qua da biet.
+
+    private static final ReferencePosition[] REFERENCE_POSITIONS = {
+            new ReferencePosition("start", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                    20, 400, 8902, 197281, 4865609),
+            new ReferencePosition("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48, 2039, 97862, 4085603),
+            new ReferencePosition("position3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14, 191, 2812, 43238, 674624),
+            new ReferencePosition("position4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6, 264, 9467, 422333),
+            new ReferencePosition("position5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44, 1486, 62379, 2103487)
+    };
+
+    private final boolean parallel;
+    private final boolean bitBoard;
+    private final PerftTable table;
+
+    public Perft(final boolean parallel, final int hashSizeMb) {
+        this(parallel, hashSizeMb, false);
+    }
+
+    public Perft(final boolean parallel, final int hashSizeMb, final boolean bitBoard) {
+        this.parallel = parallel;
+        this.bitBoard = bitBoard;
+        this.table = hashSizeMb > 0 ? new PerftTable(hashSizeMb) : null;
+    }
+
+    public long perft(final Board board, final int depth) {
+        if (!this.parallel || depth < 2) {
+            return this.bitBoard ? count(new BitBoard(board.getBitBoard()), depth) : count(board, depth);
+        }
+        long nodes = 0;
+        for (final long subtreeNodes : divide(board, depth).values()) {
+            nodes += subtreeNodes;
+        }
+        return nodes;
+    }
+
+    // So the co duoi tung nuoc di o goc, dung de tim nuoc sinh sai khi so voi mot engine khac
+    public Map<String, Long> divide(final Board board, final int depth) {
+        if (this.bitBoard) {
+            return divide(new BitBoard(board.getBitBoard()), depth);
+        }
+        final Map<String, Long> result = new LinkedHashMap<>();
+        final List<Board> children = new ArrayList<>();
+        final List<String> moveNames = new ArrayList<>();
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                children.add(transition.getTransitionBoard());
+                moveNames.add(PackedMove.toString(PackedMove.fromMove(move)));
+            }
+        }
+        if (this.parallel) {
+            // Moi nuoc o goc la mot task, ForkJoinPool tu chia cho cac luong
+            final List<SubtreeTask> tasks = new ArrayList<>();
+            for (final Board child : children) {
+                tasks.add(new SubtreeTask(child, null, depth - 1));
+            }
+            ForkJoinPool.commonPool().invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    invokeAll(tasks);
+                    return null;
+                }
+            });
+            for (int i = 0; i < tasks.size(); i++) {
+                result.put(moveNames.get(i), tasks.get(i).join());
+            }
+        } else {
+            for (int i = 0; i < children.size(); i++) {
+                result.put(moveNames.get(i), count(children.get(i), depth - 1));
+            }
+        }
+        return result;
+    }
+
+    // Nhu divide tren Board; moi task song song dung ban sao BitBoard rieng vi make/unmake thay doi ban co
+    private Map<String, Long> divide(final BitBoard bitBoard, final int depth) {
+        final Map<String, Long> result = new LinkedHashMap<>();
+        final MoveList moves = new MoveList();
+        bitBoard.generateLegalMoves(moves);
+        if (this.parallel) {
+            final List<SubtreeTask> tasks = new ArrayList<>();
+            for (int i = 0; i < moves.size(); i++) {
+                final BitBoard child = new BitBoard(bitBoard);
+                child.makeMove(moves.get(i));
+                tasks.add(new SubtreeTask(null, child, depth - 1));
+            }
+            ForkJoinPool.commonPool().invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    invokeAll(tasks);
+                    return null;
+                }
+            });
+            for (int i = 0; i < tasks.size(); i++) {
+                result.put(PackedMove.toString(moves.get(i)), tasks.get(i).join());
+            }
+        } else {
+            for (int i = 0; i < moves.size(); i++) {
+                bitBoard.makeMove(moves.get(i));
+                result.put(PackedMove.toString(moves.get(i)), count(bitBoard, depth - 1));
+                bitBoard.unmakeMove();
+            }
+        }
+        return result;
+    }
+
+    private long count(final Board board, final int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (this.table != null) {
+            final long cached = this.table.probe(board.getZobristKey(), depth);
+            if (cached != PerftTable.MISS) {
+                return cached;
+            }
+        }
+        long nodes = 0;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                nodes += depth == 1 ? 1 : count(transition.getTransitionBoard(), depth - 1);
+            }
+        }
+        if (this.table != null) {
+            this.table.store(board.getZobristKey(), depth, nodes);
+        }
+        return nodes;
+    }
+
+    // generateLegalMoves chi tra ve nuoc hop le nen khong can kiem tra ket qua makeMove
+    private long count(final BitBoard bitBoard, final int depth) {
+        return count(bitBoard, depth, new MoveList[depth + 1]);
+    }
+
+    private long count(final BitBoard bitBoard, final int depth, final MoveList[] moveLists) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (this.table != null) {
+            final long cached = this.table.probe(bitBoard.getZobristKey(), depth);
+            if (cached != PerftTable.MISS) {
+                return cached;
+            }
+        }
+        if (moveLists[depth] == null) {
+            moveLists[depth] = new MoveList();
+        }
+        final MoveList moves = moveLists[depth];
+        bitBoard.generateLegalMoves(moves);
+        long nodes;
+        if (depth == 1) {
+            nodes = moves.size();
+        } else {
+            nodes = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                bitBoard.makeMove(moves.get(i));
+                nodes += count(bitBoard, depth - 1, moveLists);
+                bitBoard.unmakeMove();
+            }
+        }
+        if (this.table != null) {
+            this.table.store(bitBoard.getZobristKey(), depth, nodes);
+        }
+        return nodes;
+    }
+
+    // Dem tren Board hoac tren BitBoard (-bitboard), dung mot trong hai
+    private final class SubtreeTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final BitBoard bitBoard;
+        private final int depth;
+
+        private SubtreeTask(final Board board, final BitBoard bitBoard, final int depth) {
+            this.board = board;
+            this.bitBoard = bitBoard;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            return this.bitBoard != null ? count(this.bitBoard, this.depth) : count(this.board, this.depth);
+        }
+    }
+
+    // Bang bam so nut theo (khoa Zobrist, do sau). Khong khoa: luu key ^ count cung voi count,
+    // doc ra ma hai o khong khop (bi ghi do dang boi luong khac) thi coi nhu khong co.
+    private static final class PerftTable {
+        private static final long MISS = -1;
+        private static final int ENTRY_BYTES = 16;
+
+        private final long[] checks;
+        private final long[] counts;
+        private final int mask;
+
+        private PerftTable(final int sizeMb) {
+            final int entries = Integer.highestOneBit((int) Math.min((long) sizeMb * 1024 * 1024 / ENTRY_BYTES, 1 << 30));
+            this.checks = new long[entries];
+            this.counts = new long[entries];
+            this.mask = entries - 1;
+        }
+
+        private long probe(final long zobristKey, final int depth) {
+            final long key = entryKey(zobristKey, depth);
+            final int index = (int) key & this.mask;
+            final long nodes = this.counts[index];
+            return (this.checks[index] ^ nodes) == key ? nodes : MISS;
+        }
+
+        private void store(final long zobristKey, final int depth, final long nodes) {
+            final long key = entryKey(zobristKey, depth);
+            final int index = (int) key & this.mask;
+            this.counts[index] = nodes;
+            this.checks[index] = key ^ nodes;
+        }
+
+        private static long entryKey(final long zobristKey, final int depth) {
+            return zobristKey ^ (depth * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    private static final class ReferencePosition {
+        private final String name;
+        private final String fen;
+        private final long[] expectedNodes;   // expectedNodes[d - 1] la perft(d)
+
+        private ReferencePosition(final String name, final String fen, final long... expectedNodes) {
+            this.name = name;
+            this.fen = fen;
+            this.expectedNodes = expectedNodes;
+        }
+    }
+
+    public static void main(final String[] args) {
+        String fen = null;
+        int depth = -1;
+        boolean divide = false;
+        boolean parallel = false;
+        int hashSizeMb = 0;
+        boolean bitBoard = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-fen" -> fen = args[++i];
+                case "-depth" -> depth = Integer.parseInt(args[++i]);
+                case "-divide" -> divide = true;
+                case "-parallel" -> parallel = true;
+                case "-hash" -> hashSizeMb = Integer.parseInt(args[++i]);
+                case "-bitboard" -> bitBoard = true;
+                default -> throw new RuntimeException("Unknown option: " + args[i]);
+            }
+        }
+        final Perft perft = new Perft(parallel, hashSizeMb, bitBoard);
+        if (fen != null) {
+            final Board board = FenUtilities.createGameFromFEN(fen);
+            final int searchDepth = depth > 0 ? depth : 4;
+            if (divide) {
+                runDivide(perft, board, searchDepth);
+            } else {
+                run(perft, fen, board, searchDepth, -1);
+            }
+            return;
+        }
+        boolean allPassed = true;
+        for (final ReferencePosition position : REFERENCE_POSITIONS) {
+            final int searchDepth = depth > 0 ? Math.min(depth, position.expectedNodes.length) : position.expectedNodes.length - 1;
+            allPassed &= run(perft, position.name, FenUtilities.createGameFromFEN(position.fen), searchDepth,
+                    position.expectedNodes[searchDepth - 1]);
+        }
+        System.out.println(allPassed ? "All perft results match" : "PERFT MISMATCH");
+    }
+
+    private static boolean run(final Perft perft, final String name, final Board board, final int depth, final long expected) {
+        final long startTime = System.nanoTime();
+        final long nodes = perft.perft(board, depth);
+        final long elapsed = System.nanoTime() - startTime;
+        final boolean passed = expected < 0 || nodes == expected;
+        System.out.printf("%-10s perft(%d) = %d  %d ms  %.0f nodes/s%s%n", name, depth, nodes, elapsed / 1_000_000,
+                nodes * 1e9 / Math.max(elapsed, 1), expected < 0 ? "" : passed ? "  OK" : "  FAIL (expected " + expected + ")");
+        return passed;
+    }
+
+    private static void runDivide(final Perft perft, final Board board, final int depth) {
+        final long startTime = System.nanoTime();
+        long nodes = 0;
+        for (final Map.Entry<String, Long> entry : perft.divide(board, depth).entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            nodes += entry.getValue();
+        }
+        final long elapsed = System.nanoTime() - startTime;
+        System.out.printf("%nNodes searched: %d  %d ms  %.0f nodes/s%n", nodes, elapsed / 1_000_000, nodes * 1e9 / Math.max(elapsed, 1));
+    }
+}
@@ -0,0 +1,151 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.al.Counter;
+import com.chess.engine.player.al.MiniMax;
+import com.chess.engine.player.al.ParallelSearch;
+import com.chess.engine.player.al.SearchLimits;
+import com.chess.engine.player.al.SearchParameters;
+import com.chess.engine.player.al.Semaphores;
+import com.chess.engine.player.al.StandardExtensionPolicy;
+import com.chess.engine.player.al.TranspositionTable;
+import com.chess.pgn.FenUtilities;
+
+public class SearchBenchmark {
+    // So sanh tim kiem 1 luong voi tim kiem nhieu luong (moi kieu ParallelSearch) o cung do sau: nuoc di, diem, so nut,
+    // thoi gian va nodes/s. Moi lan chay dung bang chuyen vi moi de cac lan khong anh huong nhau. Thoi gian chi co y
+    // nghia tren may nhieu nhan; so nut cho biet bao nhieu phan la tim thua (search overhead) do chia cay.
+    // Chay: java com.chess.bench.SearchBenchmark [-fen "<fen>"] [-depth n] [-threads n] [-hash mb] [-check]
+    // -check: tim alpha-beta khong cat tia chon loc, nen tim chia cay (ROOT_SPLIT, YOUNG_BROTHERS_WAIT) phai ra dung
+    // nuoc va diem cua tim 1 luong; khac la chia cay lam mat viec. Voi tham so mac dinh thi LMR, null move, futility...
+    // phu thuoc thu tu nuoc (killer/history rieng cua tung luong) nen ket qua duoc phep khac.
+
+    // Seed co dinh cho nhieu danh gia: tim 1 luong luon ra cung nuoc, cung so nut
+    private static final SearchParameters SEARCH_PARAMETERS = new SearchParameters.Builder().setRandomSeed(1).build();
+    private static final SearchParameters CHECK_PARAMETERS = new SearchParameters.Builder()
+            .setRandomSeed(1)
+            .setNullMovePruning(false)
+            .setLateMoveReductions(false)
+            .setFutilityPruning(false)
+            .setReverseFutilityPruning(false)
+            .setRazoring(false)
+            .setProbCut(false)
+            .setExtensionPolicy(new StandardExtensionPolicy.Builder()
+                    .setCheckExtension(false)
+                    .setRecaptureExtension(false)
+                    .setSingularExtension(false)
+                    .build())
+            .build();
+
+    private static final String[] POSITIONS = {
+            "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r2q1rk1/pp2bppp/2n1bn2/3p4/3P4/2NBBN2/PP3PPP/R2Q1RK1 w - - 4 11"
+    };
+
+    private SearchBenchmark() {
+        throw new RuntimeException("You can not instantiate me!");
+    }
+
+    public static void main(final String[] args) {
+        String fen = null;
+        int depth = 4;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashSizeMb = 32;
+        boolean check = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-fen" -> fen = args[++i];
+                case "-depth" -> depth = Integer.parseInt(args[++i]);
+                case "-threads" -> threads = Integer.parseInt(args[++i]);
+                case "-hash" -> hashSizeMb = Integer.parseInt(args[++i]);
+                case "-check" -> check = true;
+                default -> throw new RuntimeException("Unknown option: " + args[i]);
+            }
+        }
+        Semaphores.setSemaphore(false);   // khong dung sach khai cuoc
+        final String[] positions = fen != null ? new String[]{fen} : POSITIONS;
+        if (check) {
+            check(positions, depth, threads, hashSizeMb);
+            return;
+        }
+        run(positions[0], depth, 1, ParallelSearch.LAZY_SMP, SEARCH_PARAMETERS, hashSizeMb);   // lam nong JIT truoc khi do
+        final long[] totalNodes = new long[ParallelSearch.values().length + 1];
+        final long[] totalTime = new long[ParallelSearch.values().length + 1];
+        for (final String position : positions) {
+            System.out.println(position);
+            final Result serial = run(position, depth, 1, ParallelSearch.LAZY_SMP, SEARCH_PARAMETERS, hashSizeMb);
+            print("serial", 1, serial, serial);
+            totalNodes[0] += serial.nodes;
+            totalTime[0] += serial.time;
+            for (final ParallelSearch parallelSearch : ParallelSearch.values()) {
+                final Result result = run(position, depth, threads, parallelSearch, SEARCH_PARAMETERS, hashSizeMb);
+                print(parallelSearch.toString(), threads, result, serial);
+                totalNodes[parallelSearch.ordinal() + 1] += result.nodes;
+                totalTime[parallelSearch.ordinal() + 1] += result.time;
+            }
+        }
+        System.out.println("total");
+        final Result serial = new Result(null, 0, totalNodes[0], totalTime[0]);
+        print("serial", 1, serial, serial);
+        for (final ParallelSearch parallelSearch : ParallelSearch.values()) {
+            print(parallelSearch.toString(), threads, new Result(null, 0, totalNodes[parallelSearch.ordinal() + 1],
+                    totalTime[parallelSearch.ordinal() + 1]), serial);
+        }
+    }
+
+    // Lazy SMP khong nam trong phep so sanh: luong phu ghi vao bang cac ket qua o do sau khac nen diem duoc phep khac
+    private static void check(final String[] positions, final int depth, final int threads, final int hashSizeMb) {
+        boolean allMatched = true;
+        for (final String position : positions) {
+            System.out.println(position);
+            final Result serial = run(position, depth, 1, ParallelSearch.LAZY_SMP, CHECK_PARAMETERS, hashSizeMb);
+            print("serial", 1, serial, serial);
+            for (final ParallelSearch parallelSearch : new ParallelSearch[]{ParallelSearch.ROOT_SPLIT,
+                    ParallelSearch.YOUNG_BROTHERS_WAIT}) {
+                final Result result = run(position, depth, threads, parallelSearch, CHECK_PARAMETERS, hashSizeMb);
+                final boolean matched = result.score == serial.score && result.move.equals(serial.move);
+                print(parallelSearch.toString(), threads, result, serial);
+                System.out.println(matched ? "    OK" : "    FAIL (serial " + serial.move + " " + serial.score + ")");
+                allMatched &= matched;
+            }
+        }
+        System.out.println(allMatched ? "All parallel results match serial" : "PARALLEL MISMATCH");
+    }
+
+    private static Result run(final String fen, final int depth, final int threads, final ParallelSearch parallelSearch,
+                              final SearchParameters searchParameters, final int hashSizeMb) {
+        final Board board = FenUtilities.createGameFromFEN(fen);
+        final MiniMax miniMax = new MiniMax(SearchLimits.depth(depth), threads, parallelSearch, searchParameters,
+                new TranspositionTable(hashSizeMb));
+        Counter.reset();   // moi lan chay danh gia nhu nhau, khong phu thuoc so lan execute() truoc do
+        final long startTime = System.currentTimeMillis();
+        final Move move = miniMax.execute(board);
+        return new Result(move, miniMax.getScore(), miniMax.getNodes(), System.currentTimeMillis() - startTime);
+    }
+
+    // So nut so voi 1 luong cho biet bao nhieu phan la tim thua do chia cay
+    private static void print(final String name, final int threads, final Result result, final Result serial) {
+        System.out.printf("  %-20s threads %3d  move %-8s score %7s  nodes %12d  time %8d ms  nps %10d  nodes x%5.2f%n",
+                name, threads, result.move == null ? "-" : result.move.toString(),
+                result.move == null ? "-" : String.valueOf(result.score), result.nodes,
+                result.time, result.nodes * 1000 / Math.max(1, result.time),
+                (double) result.nodes / Math.max(1, serial.nodes));
+    }
+
+    private static final class Result {
+        private final Move move;
+        private final int score;
+        private final long nodes;
+        private final long time;
+
+        private Result(final Move move, final int score, final long nodes, final long time) {
+            this.move = move;
+            this.score = score;
+            this.nodes = nodes;
+            this.time = time;
+        }
+    }
+}
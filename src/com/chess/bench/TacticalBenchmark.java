@@ -0,0 +1,121 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.player.al.Counter;
+import com.chess.engine.player.al.MiniMax;
+import com.chess.engine.player.al.ParallelSearch;
+import com.chess.engine.player.al.SearchLimits;
+import com.chess.engine.player.al.SearchParameters;
+import com.chess.engine.player.al.Semaphores;
+import com.chess.engine.player.al.TranspositionTable;
+import com.chess.pgn.FenUtilities;
+
+public class TacticalBenchmark {
+    // Chay bo the co chien thuat (20 the dau cua Win At Chess) o cung do sau voi tung cau hinh cat tia: dem so the
+    // tim dung nuoc, so nut va thoi gian, de xem cat tia co lam mat nuoc chien thuat hay khong.
+    // Chay: java com.chess.bench.TacticalBenchmark [-depth n] [-hash mb] [-seed n]
+
+    // FEN va nuoc dung (o di + o den)
+    private static final String[][] POSITIONS = {
+            {"2rr3k/pp3pp1/1nnqbN1p/3pN3/2pP4/2P3Q1/PPB4P/R4RK1 w - - 0 1", "g3g6"},
+            {"8/7p/5k2/5p2/p1p2P2/Pr1pPK2/1P1R3P/8 b - - 0 1", "b3b2"},
+            {"5rk1/1ppb3p/p1pb4/6q1/3P1p1r/2P1R2P/PP1BQ1P1/5RKN w - - 0 1", "e3g3"},
+            {"r1bq2rk/pp3pbp/2p1p1pQ/7P/3P4/2PB1N2/PP3PPR/2KR4 w - - 0 1", "h6h7"},
+            {"5k2/6pp/p1qN4/1p1p4/3P4/2PKP2Q/PP3r2/3R4 b - - 0 1", "c6c4"},
+            {"7k/p7/1R5K/6r1/6p1/6P1/8/8 w - - 0 1", "b6b7"},
+            {"rnbqkb1r/pppp1ppp/8/4P3/6n1/7P/PPPNPPP1/R1BQKBNR b KQkq - 0 1", "g4e3"},
+            {"r4q1k/p2bR1rp/2p2Q1N/5p2/5p2/2P5/PP3PPP/R5K1 w - - 0 1", "e7f7"},
+            {"3q1rk1/p4pp1/2pb3p/3p4/6Pr/1PNQ4/P1PB1PP1/4RRK1 b - - 0 1", "d6h2"},
+            {"2br2k1/2q3rn/p2NppQ1/2p1P3/Pp5R/4P3/1P3PPP/3R2K1 w - - 0 1", "h4h7"},
+            {"r1b1kb1r/3q1ppp/pBp1pn2/8/Np3P2/5B2/PPP3PP/R2Q1RK1 w kq - 0 1", "f3c6"},
+            {"4k1r1/2p3r1/1pR1p3/3pP2p/3P2qP/P4N2/1PQ4P/5R1K b - - 0 1", "g4f3"},
+            {"5rk1/pp4p1/2n1p2p/2Npq3/2p5/6P1/P3P1BP/R4Q1K w - - 0 1", "f1f8"},
+            {"r2rb1k1/pp1q1p1p/2n1p1p1/2bp4/5P2/PP1BPR1Q/1BPN2PP/R5K1 w - - 0 1", "h3h7"},
+            {"1R6/1brk2p1/4p2p/p1P1Pp2/P7/6P1/1P4P1/2R3K1 w - - 0 1", "b8b7"},
+            {"r4rk1/ppp2ppp/2n5/2bqp3/8/P2PB3/1PP1NPPP/R2Q1RK1 w - - 0 1", "e2c3"},
+            {"1k5r/pppbn1pp/4q1r1/1P3p2/2NPp3/1QP5/P4PPP/R1B1R1K1 w - - 0 1", "c4e5"},
+            {"R7/P4k2/8/8/8/8/r7/6K1 w - - 0 1", "a8h8"},
+            {"r1b2rk1/ppbn1ppp/4p3/1QP4q/3P4/N4N2/5PPP/R1B2RK1 w - - 0 1", "c5c6"},
+            {"r2qkb1r/1ppb1ppp/p7/4p3/P1Q1P3/2P5/5PPP/R1B2KNR b kq - 0 1", "d7b5"}
+    };
+
+    private static final String[] CONFIGURATION_NAMES = {"default", "with razoring", "no probcut", "no pruning"};
+
+    private TacticalBenchmark() {
+        throw new RuntimeException("You can not instantiate me!");
+    }
+
+    public static void main(final String[] args) {
+        int depth = 6;
+        int hashSizeMb = 32;
+        long seed = 1;      // seed co dinh cho nhieu danh gia de ket qua lap lai duoc
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-depth" -> depth = Integer.parseInt(args[++i]);
+                case "-hash" -> hashSizeMb = Integer.parseInt(args[++i]);
+                case "-seed" -> seed = Long.parseLong(args[++i]);
+                default -> throw new RuntimeException("Unknown option: " + args[i]);
+            }
+        }
+        Semaphores.setSemaphore(false);   // khong dung sach khai cuoc
+        final SearchParameters[] configurations = {
+                new SearchParameters.Builder().setRandomSeed(seed).build(),
+                new SearchParameters.Builder().setRandomSeed(seed).setRazoring(true).build(),
+                new SearchParameters.Builder().setRandomSeed(seed).setProbCut(false).build(),
+                new SearchParameters.Builder().setRandomSeed(seed).disableAll().build()
+        };
+        run(POSITIONS[0], depth, configurations[0], hashSizeMb);   // lam nong JIT truoc khi do
+        final int[] solved = new int[configurations.length];
+        final long[] totalNodes = new long[configurations.length];
+        final long[] totalTime = new long[configurations.length];
+        for (final String[] position : POSITIONS) {
+            System.out.println(position[0] + " bm " + position[1]);
+            for (int c = 0; c < configurations.length; c++) {
+                final Result result = run(position, depth, configurations[c], hashSizeMb);
+                print(CONFIGURATION_NAMES[c], result);
+                solved[c] += result.solved ? 1 : 0;
+                totalNodes[c] += result.nodes;
+                totalTime[c] += result.time;
+            }
+        }
+        System.out.println("total (depth " + depth + ")");
+        for (int c = 0; c < configurations.length; c++) {
+            System.out.printf("  %-20s solved %2d/%d  nodes %12d  time %8d ms%n", CONFIGURATION_NAMES[c], solved[c],
+                    POSITIONS.length, totalNodes[c], totalTime[c]);
+        }
+    }
+
+    // Moi lan chay dung bang chuyen vi moi va dat lai Counter (ham danh gia doc no) de cac cau hinh khong anh huong nhau
+    private static Result run(final String[] position, final int depth, final SearchParameters searchParameters,
+                              final int hashSizeMb) {
+        final Board board = FenUtilities.createGameFromFEN(position[0]);
+        final MiniMax miniMax = new MiniMax(SearchLimits.depth(depth), 1, ParallelSearch.LAZY_SMP, searchParameters,
+                new TranspositionTable(hashSizeMb));
+        Counter.reset();   // moi lan chay danh gia nhu nhau, khong phu thuoc so lan execute() truoc do
+        final long startTime = System.currentTimeMillis();
+        final Move move = miniMax.execute(board);
+        final boolean solved = PackedMove.toString(PackedMove.fromMove(move)).equals(position[1]);
+        return new Result(move, solved, miniMax.getNodes(), System.currentTimeMillis() - startTime);
+    }
+
+    private static void print(final String name, final Result result) {
+        System.out.printf("  %-20s %s move %-8s nodes %12d  time %8d ms%n", name, result.solved ? "+" : "-",
+                result.move.toString(), result.nodes, result.time);
+    }
+
+    private static final class Result {
+        private final Move move;
+        private final boolean solved;
+        private final long nodes;
+        private final long time;
+
+        private Result(final Move move, final boolean solved, final long nodes, final long time) {
+            this.move = move;
+            this.solved = solved;
+            this.nodes = nodes;
+            this.time = time;
+        }
+    }
+}
@@ -32,6 +32,11 @@ public enum Alliance {
             return whitePlayer;
         }
 
+        @Override
+        public Alliance opposite() {
+            return BLACK;
+        }
+
 		@Override
 		public boolean isPawnPromotionSquare(int position) {
 			return BoardUtils.EIGHTH_RANK[position];
@@ -62,6 +67,11 @@ public enum Alliance {
             return blackPlayer;
         }
 
+        @Override
+        public Alliance opposite() {
+            return WHITE;
+        }
+
 		@Override
 		public boolean isPawnPromotionSquare(int position) {
 			return BoardUtils.FIRST_RANK[position];
@@ -77,4 +87,5 @@ public enum Alliance {
     public abstract boolean isPawnPromotionSquare(int position);
 
     public abstract Player choosePlayer(WhitePlayer whitePlayer, BlackPlayer blackPlayer);
+    public abstract Alliance opposite();
 }
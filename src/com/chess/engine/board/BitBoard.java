@@ -0,0 +1,856 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Arrays;
+import java.util.Map;
+
+public final class BitBoard {
+
+    public static final int NO_PIECE = -1;
+    public static final int NO_SQUARE = -1;
+    // Luat 50 nuoc: 100 nua nuoc lien tiep khong an quan, khong di tot
+    public static final int FIFTY_MOVE_PLIES = 100;
+
+    private static final Alliance[] ALLIANCES = Alliance.values();
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final int NUM_PIECE_TYPES = PIECE_TYPES.length;
+
+    private static final int INITIAL_UNDO_CAPACITY = 64;
+    private static final long[] NO_KEYS = new long[0];
+
+    private final long[] pieceBitboards;     // moi (ben, loai quan) mot bitboard, chi so theo pieceIndex()
+    private final long[] allianceOccupancy;  // tat ca quan trang, tat ca quan den
+    private long occupancy;
+    private final int[] mailbox;             // pieceIndex() cua quan tren tung o, NO_PIECE neu o trong
+    private long unmovedPieces;              // cac o co quan chua di lan nao (Piece.isFirstMove)
+    private final boolean[] castled;         // King.isCastled cua tung ben
+    private Alliance sideToMove;
+    private int enPassantSquare;             // o phia sau tot vua di 2 o, NO_SQUARE neu khong co
+    private long zobristKey;                 // xem Zobrist, cap nhat tung nuoc trong makeMove/unmakeMove
+    private int halfmoveClock;               // so nua nuoc tu lan an quan/di tot gan nhat
+    // Khoa cac the co truoc khi tao BitBoard (cu nhat truoc), tu nuoc khong dao nguoc duoc gan nhat; cac the co sau do
+    // nam trong undoKeys. Van co va tim kiem dung chung mot lich su nay de nhan ra lap lai.
+    private final long[] gameKeys;
+
+    // Ngan xep luu trang thai cho unmakeMove, moi phan tu la mot nuoc da di
+    private int[] undoMoves;                 // PackedMove da di
+    private int[] undoCaptured;              // pieceIndex() cua quan bi an, NO_PIECE neu khong an
+    private int[] undoEnPassant;
+    private long[] undoUnmoved;
+    private int[] undoCastled;               // bit 0: trang da nhap thanh, bit 1: den da nhap thanh
+    private long[] undoKeys;
+    private int[] undoHalfmoveClock;
+    private int undoSize;
+
+    // Bang gain cua exchange(), dung lai qua cac lan goi SEE; moi luong tim kiem co BitBoard rieng nen khong bi tranh.
+    // 32 du vi moi lan an bo mot quan khoi ban co
+    private final int[] exchangeGains = new int[32];
+
+    // zobristKey la khoa da cap nhat tu the co truoc (Move.execute), null thi tinh lai tu dau
+    BitBoard(final Map<Integer, Piece> boardConfig, final Alliance sideToMove, final Pawn enPassantPawn, final Long zobristKey,
+             final int halfmoveClock, final long[] gameKeys) {
+        this.pieceBitboards = new long[ALLIANCES.length * NUM_PIECE_TYPES];
+        this.allianceOccupancy = new long[ALLIANCES.length];
+        this.mailbox = new int[BoardUtils.NUM_TILES];
+        this.castled = new boolean[ALLIANCES.length];
+        Arrays.fill(this.mailbox, NO_PIECE);
+        long unmoved = BitboardUtils.EMPTY;
+        for (final Piece piece : boardConfig.values()) {
+            final int square = piece.getPiecePosition();
+            final int index = pieceIndex(piece.getPieceAlliance(), piece.getPieceType());
+            this.pieceBitboards[index] |= BitboardUtils.squareBit(square);
+            this.allianceOccupancy[piece.getPieceAlliance().ordinal()] |= BitboardUtils.squareBit(square);
+            this.mailbox[square] = index;
+            if (piece.isFirstMove()) {
+                unmoved |= BitboardUtils.squareBit(square);
+            }
+            if (piece.getPieceType().isKing() && ((King) piece).isCastled()) {
+                this.castled[piece.getPieceAlliance().ordinal()] = true;
+            }
+        }
+        this.occupancy = this.allianceOccupancy[0] | this.allianceOccupancy[1];
+        this.unmovedPieces = unmoved;
+        this.sideToMove = sideToMove;
+        this.enPassantSquare = enPassantPawn == null ? NO_SQUARE :
+                enPassantPawn.getPiecePosition() - BitboardUtils.pawnAdvance(enPassantPawn.getPieceAlliance());
+        this.zobristKey = zobristKey == null ? Zobrist.computeKey(this) : zobristKey;
+        this.halfmoveClock = halfmoveClock;
+        this.gameKeys = gameKeys;
+        initUndoStack();
+    }
+
+    // Ban sao de tim kiem: make/unmake tren ban sao khong lam thay doi Board goc
+    public BitBoard(final BitBoard other) {
+        this.pieceBitboards = other.pieceBitboards.clone();
+        this.allianceOccupancy = other.allianceOccupancy.clone();
+        this.occupancy = other.occupancy;
+        this.mailbox = other.mailbox.clone();
+        this.unmovedPieces = other.unmovedPieces;
+        this.castled = other.castled.clone();
+        this.sideToMove = other.sideToMove;
+        this.enPassantSquare = other.enPassantSquare;
+        this.zobristKey = other.zobristKey;
+        this.halfmoveClock = other.halfmoveClock;
+        this.gameKeys = other.keyHistory();
+        initUndoStack();
+    }
+
+    private void initUndoStack() {
+        this.undoMoves = new int[INITIAL_UNDO_CAPACITY];
+        this.undoCaptured = new int[INITIAL_UNDO_CAPACITY];
+        this.undoEnPassant = new int[INITIAL_UNDO_CAPACITY];
+        this.undoUnmoved = new long[INITIAL_UNDO_CAPACITY];
+        this.undoCastled = new int[INITIAL_UNDO_CAPACITY];
+        this.undoKeys = new long[INITIAL_UNDO_CAPACITY];
+        this.undoHalfmoveClock = new int[INITIAL_UNDO_CAPACITY];
+        this.undoSize = 0;
+    }
+
+    public static int pieceIndex(final Alliance alliance, final PieceType pieceType) {
+        return alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+
+    public static Alliance allianceOf(final int pieceIndex) {
+        return ALLIANCES[pieceIndex / NUM_PIECE_TYPES];
+    }
+
+    public static PieceType pieceTypeOf(final int pieceIndex) {
+        return PIECE_TYPES[pieceIndex % NUM_PIECE_TYPES];
+    }
+
+    public long getPieces(final Alliance alliance, final PieceType pieceType) {
+        return this.pieceBitboards[pieceIndex(alliance, pieceType)];
+    }
+
+    public long getOccupancy(final Alliance alliance) {
+        return this.allianceOccupancy[alliance.ordinal()];
+    }
+
+    public long getOccupancy() {
+        return this.occupancy;
+    }
+
+    public int getPieceIndexAt(final int square) {
+        return this.mailbox[square];
+    }
+
+    public PieceType getPieceTypeAt(final int square) {
+        return this.mailbox[square] == NO_PIECE ? null : pieceTypeOf(this.mailbox[square]);
+    }
+
+    public long getUnmovedPieces() {
+        return this.unmovedPieces;
+    }
+
+    public boolean isCastled(final Alliance alliance) {
+        return this.castled[alliance.ordinal()];
+    }
+
+    public Alliance getSideToMove() {
+        return this.sideToMove;
+    }
+
+    public int getEnPassantSquare() {
+        return this.enPassantSquare;
+    }
+
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    // Hoa theo luat 50 nuoc (chua xet nuoc cuoi co chieu het hay khong)
+    public boolean isFiftyMoveDraw() {
+        return this.halfmoveClock >= FIFTY_MOVE_PLIES;
+    }
+
+    // The co hien tai da xuat hien truoc do (cung ben di): trong tim kiem coi lan lap thu hai la hoa luon
+    public boolean isRepetition() {
+        return countRepetitions(1) >= 1;
+    }
+
+    // Lap lai 3 lan: the co hien tai da xuat hien 2 lan truoc do, van co hoa
+    public boolean isThreefoldRepetition() {
+        return countRepetitions(2) >= 2;
+    }
+
+    // Chi so sanh voi cac the co cung ben di (cach 2, 4, 6... nua nuoc) tu lan an quan/di tot gan nhat, nen ton
+    // O(halfmoveClock). Khong nhin qua nuoc trong: the co truoc nuoc trong khong lap lai that.
+    private int countRepetitions(final int enough) {
+        final int limit = Math.min(this.halfmoveClock, this.undoSize + this.gameKeys.length);
+        int count = 0;
+        for (int distance = 2; distance <= limit; distance += 2) {
+            final long key;
+            if (distance <= this.undoSize) {
+                final int index = this.undoSize - distance;
+                if (this.undoMoves[index] == PackedMove.NULL_MOVE || this.undoMoves[index + 1] == PackedMove.NULL_MOVE) {
+                    break;
+                }
+                key = this.undoKeys[index];
+            } else {
+                if (this.undoSize > 0 && this.undoMoves[0] == PackedMove.NULL_MOVE) {
+                    break;
+                }
+                key = this.gameKeys[this.gameKeys.length - (distance - this.undoSize)];
+            }
+            if (key == this.zobristKey && ++count >= enough) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    // Khoa cac the co truoc the co hien tai ma con co the lap lai (cu nhat truoc): toi da halfmoveClock the co,
+    // khong gom cac the co truoc nuoc trong gan nhat
+    long[] keyHistory() {
+        int first = 0;
+        for (int i = this.undoSize - 1; i >= 0; i--) {
+            if (this.undoMoves[i] == PackedMove.NULL_MOVE) {
+                first = i + 1;
+                break;
+            }
+        }
+        final int fromGame = first == 0 ? this.gameKeys.length : 0;
+        final int total = Math.min(this.halfmoveClock, fromGame + this.undoSize - first);
+        if (total <= 0) {
+            return NO_KEYS;
+        }
+        final long[] keys = new long[total];
+        final int fromUndo = Math.min(total, this.undoSize - first);
+        final int gameCount = total - fromUndo;
+        System.arraycopy(this.gameKeys, this.gameKeys.length - gameCount, keys, 0, gameCount);
+        System.arraycopy(this.undoKeys, this.undoSize - fromUndo, keys, gameCount, fromUndo);
+        return keys;
+    }
+
+    // Lich su khoa cho Board sau mot nuoc thuan nghich: lich su hien tai them khoa cua the co nay
+    long[] keyHistoryAfterMove() {
+        final long[] history = keyHistory();
+        final long[] keys = Arrays.copyOf(history, history.length + 1);
+        keys[history.length] = this.zobristKey;
+        return keys;
+    }
+
+    // Zobrist.WHITE_KING_SIDE... cua nhung phia ma vua va xe deu chua di
+    public int getCastlingRights() {
+        return castlingRights(this.unmovedPieces);
+    }
+
+    private int castlingRights(final long unmoved) {
+        final long unmovedKings = unmoved & (this.pieceBitboards[pieceIndex(Alliance.WHITE, PieceType.KING)] |
+                this.pieceBitboards[pieceIndex(Alliance.BLACK, PieceType.KING)]);
+        final long unmovedRooks = unmoved & (this.pieceBitboards[pieceIndex(Alliance.WHITE, PieceType.ROOK)] |
+                this.pieceBitboards[pieceIndex(Alliance.BLACK, PieceType.ROOK)]);
+        int rights = 0;
+        if (BitboardUtils.isSet(unmovedKings, 60)) {
+            if (BitboardUtils.isSet(unmovedRooks, 63)) rights |= Zobrist.WHITE_KING_SIDE;
+            if (BitboardUtils.isSet(unmovedRooks, 56)) rights |= Zobrist.WHITE_QUEEN_SIDE;
+        }
+        if (BitboardUtils.isSet(unmovedKings, 4)) {
+            if (BitboardUtils.isSet(unmovedRooks, 7)) rights |= Zobrist.BLACK_KING_SIDE;
+            if (BitboardUtils.isSet(unmovedRooks, 0)) rights |= Zobrist.BLACK_QUEEN_SIDE;
+        }
+        return rights;
+    }
+
+    // O bat tot qua duong chi tinh vao khoa khi ben dang di co tot an duoc vao o do
+    boolean isEnPassantCapturable() {
+        return this.enPassantSquare != NO_SQUARE && (BitboardUtils.PAWN_ATTACKS[this.sideToMove.opposite().ordinal()][this.enPassantSquare] &
+                getPieces(this.sideToMove, PieceType.PAWN)) != BitboardUtils.EMPTY;
+    }
+
+    // Cung mot the co (quan, ben di, quyen nhap thanh, bat tot qua duong) du di den bang duong khac
+    public boolean hasSamePosition(final BitBoard other) {
+        return this.zobristKey == other.zobristKey && this.sideToMove == other.sideToMove &&
+                Arrays.equals(this.pieceBitboards, other.pieceBitboards) &&
+                getCastlingRights() == other.getCastlingRights() &&
+                (isEnPassantCapturable() ? other.isEnPassantCapturable() && this.enPassantSquare == other.enPassantSquare :
+                        !other.isEnPassantCapturable());
+    }
+
+    public int getKingSquare(final Alliance alliance) {
+        return Long.numberOfTrailingZeros(getPieces(alliance, PieceType.KING));
+    }
+
+    // Cac o ma quan dang dung o square tan cong (voi quan tot: chi tinh nuoc an cheo)
+    public long attacksFrom(final int square) {
+        final int index = this.mailbox[square];
+        if (index == NO_PIECE) {
+            return BitboardUtils.EMPTY;
+        }
+        return switch (pieceTypeOf(index)) {
+            case PAWN -> BitboardUtils.PAWN_ATTACKS[allianceOf(index).ordinal()][square];
+            case KNIGHT -> BitboardUtils.KNIGHT_ATTACKS[square];
+            case BISHOP -> BitboardUtils.bishopAttacks(square, this.occupancy);
+            case ROOK -> BitboardUtils.rookAttacks(square, this.occupancy);
+            case QUEEN -> BitboardUtils.queenAttacks(square, this.occupancy);
+            case KING -> BitboardUtils.KING_ATTACKS[square];
+        };
+    }
+
+    // Tat ca quan cua attacker dang tan cong o square, tinh nguoc tu o do theo tung kieu di
+    public long attackersTo(final int square, final Alliance attacker) {
+        final long queens = getPieces(attacker, PieceType.QUEEN);
+        return (BitboardUtils.PAWN_ATTACKS[attacker.opposite().ordinal()][square] & getPieces(attacker, PieceType.PAWN)) |
+               (BitboardUtils.KNIGHT_ATTACKS[square] & getPieces(attacker, PieceType.KNIGHT)) |
+               (BitboardUtils.KING_ATTACKS[square] & getPieces(attacker, PieceType.KING)) |
+               (BitboardUtils.bishopAttacks(square, this.occupancy) & (getPieces(attacker, PieceType.BISHOP) | queens)) |
+               (BitboardUtils.rookAttacks(square, this.occupancy) & (getPieces(attacker, PieceType.ROOK) | queens));
+    }
+
+    // Chi can biet co bi tan cong hay khong: kiem tra tung kieu quan theo chieu nguoc tu o do, gap la dung
+    public boolean isSquareAttacked(final int square, final Alliance attacker) {
+        return isSquareAttacked(square, attacker, this.occupancy);
+    }
+
+    private boolean isSquareAttacked(final int square, final Alliance attacker, final long occupancy) {
+        if ((BitboardUtils.PAWN_ATTACKS[attacker.opposite().ordinal()][square] & getPieces(attacker, PieceType.PAWN)) != 0 ||
+            (BitboardUtils.KNIGHT_ATTACKS[square] & getPieces(attacker, PieceType.KNIGHT)) != 0 ||
+            (BitboardUtils.KING_ATTACKS[square] & getPieces(attacker, PieceType.KING)) != 0) {
+            return true;
+        }
+        final long queens = getPieces(attacker, PieceType.QUEEN);
+        final long diagonalSliders = getPieces(attacker, PieceType.BISHOP) | queens;
+        if (diagonalSliders != 0 && (BitboardUtils.bishopAttacks(square, occupancy) & diagonalSliders) != 0) {
+            return true;
+        }
+        final long straightSliders = getPieces(attacker, PieceType.ROOK) | queens;
+        return straightSliders != 0 && (BitboardUtils.rookAttacks(square, occupancy) & straightSliders) != 0;
+    }
+
+    public boolean isInCheck(final Alliance alliance) {
+        return isSquareAttacked(getKingSquare(alliance), alliance.opposite());
+    }
+
+    // Static Exchange Evaluation: vat chat (theo mgPieceValue) ben di duoc/mat sau khi hai ben lan luot an lai tren
+    // o dich cua nuoc di, moi lan dung quan re nhat. Quan truot dung sau quan vua an (x-ray) duoc tinh them;
+    // quan bi ghim van duoc coi la an duoc.
+    public int see(final int move) {
+        final int from = PackedMove.getFrom(move);
+        final int to = PackedMove.getTo(move);
+        int capturedValue = 0;
+        long occupied = this.occupancy ^ BitboardUtils.squareBit(from);
+        if (PackedMove.isEnPassant(move)) {
+            capturedValue = PieceType.PAWN.mgPieceValue;
+            occupied ^= BitboardUtils.squareBit(to - BitboardUtils.pawnAdvance(allianceOf(this.mailbox[from])));
+        } else if (this.mailbox[to] != NO_PIECE) {
+            capturedValue = pieceTypeOf(this.mailbox[to]).mgPieceValue;
+        }
+        int attackerValue = pieceTypeOf(this.mailbox[from]).mgPieceValue;
+        if (PackedMove.isPromotion(move)) {
+            capturedValue += PackedMove.getPromotionType(move).mgPieceValue - PieceType.PAWN.mgPieceValue;
+            attackerValue = PackedMove.getPromotionType(move).mgPieceValue;
+        }
+        return exchange(to, allianceOf(this.mailbox[from]).opposite(), occupied, capturedValue, attackerValue);
+    }
+
+    // Vat chat attacker an duoc neu bat dau an quan tren square (0 neu khong an duoc hoac an thi lo)
+    public int exchangeValue(final int square, final Alliance attacker) {
+        final int victim = this.mailbox[square];
+        if (victim == NO_PIECE || allianceOf(victim) == attacker) {
+            return 0;
+        }
+        final long attackers = attackersTo(square, this.occupancy) & getOccupancy(attacker);
+        if (attackers == BitboardUtils.EMPTY) {
+            return 0;
+        }
+        final int from = leastValuableSquare(attackers, attacker);
+        return Math.max(0, exchange(square, attacker.opposite(), this.occupancy ^ BitboardUtils.squareBit(from),
+                pieceTypeOf(victim).mgPieceValue, pieceTypeOf(this.mailbox[from]).mgPieceValue));
+    }
+
+    // Thuat toan swap: gain[d] la vat chat ben an lan thu d duoc neu dung o day; di nguoc lai, moi ben
+    // chon giua an tiep hoac dung
+    private int exchange(final int square, Alliance side, long occupied, final int capturedValue, int attackerValue) {
+        final int[] gain = this.exchangeGains;
+        gain[0] = capturedValue;
+        int depth = 0;
+        long attackers = attackersTo(square, occupied) & occupied;
+        while (true) {
+            final long sideAttackers = attackers & getOccupancy(side);
+            if (sideAttackers == BitboardUtils.EMPTY) {
+                break;
+            }
+            final int from = leastValuableSquare(sideAttackers, side);
+            final PieceType type = pieceTypeOf(this.mailbox[from]);
+            if (type == PieceType.KING && (attackers & getOccupancy(side.opposite())) != BitboardUtils.EMPTY) {
+                break;  // vua khong an vao o con bi tan cong
+            }
+            depth++;
+            gain[depth] = attackerValue - gain[depth - 1];
+            if (Math.max(-gain[depth - 1], gain[depth]) < 0) {
+                depth--;  // ca hai ben deu khong muon an tiep, lan an nay khong anh huong ket qua
+                break;
+            }
+            attackerValue = type.mgPieceValue;
+            occupied ^= BitboardUtils.squareBit(from);
+            attackers |= (BitboardUtils.bishopAttacks(square, occupied) & diagonalSliders()) |
+                         (BitboardUtils.rookAttacks(square, occupied) & straightSliders());
+            attackers &= occupied;
+            side = side.opposite();
+        }
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    // Quan ca hai ben tan cong square voi mot occupancy tuy y (bo dan cac quan da an trong SEE)
+    private long attackersTo(final int square, final long occupied) {
+        return (BitboardUtils.PAWN_ATTACKS[Alliance.BLACK.ordinal()][square] & getPieces(Alliance.WHITE, PieceType.PAWN)) |
+               (BitboardUtils.PAWN_ATTACKS[Alliance.WHITE.ordinal()][square] & getPieces(Alliance.BLACK, PieceType.PAWN)) |
+               (BitboardUtils.KNIGHT_ATTACKS[square] &
+                       (getPieces(Alliance.WHITE, PieceType.KNIGHT) | getPieces(Alliance.BLACK, PieceType.KNIGHT))) |
+               (BitboardUtils.KING_ATTACKS[square] &
+                       (getPieces(Alliance.WHITE, PieceType.KING) | getPieces(Alliance.BLACK, PieceType.KING))) |
+               (BitboardUtils.bishopAttacks(square, occupied) & diagonalSliders()) |
+               (BitboardUtils.rookAttacks(square, occupied) & straightSliders());
+    }
+
+    private long diagonalSliders() {
+        return getPieces(Alliance.WHITE, PieceType.BISHOP) | getPieces(Alliance.BLACK, PieceType.BISHOP) |
+               getPieces(Alliance.WHITE, PieceType.QUEEN) | getPieces(Alliance.BLACK, PieceType.QUEEN);
+    }
+
+    private long straightSliders() {
+        return getPieces(Alliance.WHITE, PieceType.ROOK) | getPieces(Alliance.BLACK, PieceType.ROOK) |
+               getPieces(Alliance.WHITE, PieceType.QUEEN) | getPieces(Alliance.BLACK, PieceType.QUEEN);
+    }
+
+    // PieceType xep tu re den dat (PAWN ... KING)
+    private int leastValuableSquare(final long attackers, final Alliance alliance) {
+        for (final PieceType type : PIECE_TYPES) {
+            final long pieces = attackers & getPieces(alliance, type);
+            if (pieces != BitboardUtils.EMPTY) {
+                return Long.numberOfTrailingZeros(pieces);
+            }
+        }
+        return NO_SQUARE;
+    }
+
+    // Tat ca nuoc di cua ben dang di, chua kiem tra vua co bi chieu sau khi di hay khong (giong Piece.calculateLegalMove)
+    public void generatePseudoLegalMoves(final MoveList moves) {
+        moves.clear();
+        final Alliance us = this.sideToMove;
+        final long ownPieces = getOccupancy(us);
+        final long enemyPieces = getOccupancy(us.opposite());
+        generatePawnMoves(moves, us, enemyPieces);
+        long pieces = ownPieces & ~getPieces(us, PieceType.PAWN);
+        while (pieces != 0) {
+            final int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            final long destinations = attacksFrom(from) & ~ownPieces;
+            addMoves(moves, from, destinations & enemyPieces, PackedMove.CAPTURE);
+            addMoves(moves, from, destinations & ~enemyPieces, PackedMove.QUIET);
+        }
+        generateCastles(moves, us);
+    }
+
+    private void generatePawnMoves(final MoveList moves, final Alliance us, final long enemyPieces) {
+        final int advance = BitboardUtils.pawnAdvance(us);
+        final long promotionRow = us.isWhite() ? BitboardUtils.ROWS[0] : BitboardUtils.ROWS[7];
+        final long startRow = us.isWhite() ? BitboardUtils.ROWS[6] : BitboardUtils.ROWS[1];
+        long pawns = getPieces(us, PieceType.PAWN);
+        while (pawns != 0) {
+            final int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            final int pushSquare = from + advance;
+            if (!BitboardUtils.isSet(this.occupancy, pushSquare)) {
+                addPawnMoves(moves, from, BitboardUtils.squareBit(pushSquare), promotionRow, false);
+                final int jumpSquare = pushSquare + advance;
+                if (BitboardUtils.isSet(this.unmovedPieces & startRow, from) && !BitboardUtils.isSet(this.occupancy, jumpSquare)) {
+                    moves.add(PackedMove.create(from, jumpSquare, PackedMove.DOUBLE_PAWN_PUSH));
+                }
+            }
+            final long attacks = BitboardUtils.PAWN_ATTACKS[us.ordinal()][from];
+            addPawnMoves(moves, from, attacks & enemyPieces, promotionRow, true);
+            if (this.enPassantSquare != NO_SQUARE && BitboardUtils.isSet(attacks, this.enPassantSquare)) {
+                moves.add(PackedMove.create(from, this.enPassantSquare, PackedMove.EN_PASSANT));
+            }
+        }
+    }
+
+    private static void addPawnMoves(final MoveList moves, final int from, long destinations, final long promotionRow,
+                                     final boolean isCapture) {
+        while (destinations != 0) {
+            final int to = Long.numberOfTrailingZeros(destinations);
+            destinations &= destinations - 1;
+            if (BitboardUtils.isSet(promotionRow, to)) {
+                moves.add(PackedMove.createPromotion(from, to, PieceType.QUEEN, isCapture));
+                moves.add(PackedMove.createPromotion(from, to, PieceType.ROOK, isCapture));
+                moves.add(PackedMove.createPromotion(from, to, PieceType.BISHOP, isCapture));
+                moves.add(PackedMove.createPromotion(from, to, PieceType.KNIGHT, isCapture));
+            } else {
+                moves.add(PackedMove.create(from, to, isCapture ? PackedMove.CAPTURE : PackedMove.QUIET));
+            }
+        }
+    }
+
+    private static void addMoves(final MoveList moves, final int from, long destinations, final int flags) {
+        while (destinations != 0) {
+            moves.add(PackedMove.create(from, Long.numberOfTrailingZeros(destinations), flags));
+            destinations &= destinations - 1;
+        }
+    }
+
+    // Dieu kien nhap thanh giong WhitePlayer/BlackPlayer.calculateKingCastles: vua va xe chua di,
+    // cac o o giua trong, o cua vua va cac o vua di qua khong bi tan cong
+    private void generateCastles(final MoveList moves, final Alliance us) {
+        final int kingSquare = us.isWhite() ? 60 : 4;
+        if (!BitboardUtils.isSet(getPieces(us, PieceType.KING) & this.unmovedPieces, kingSquare)) {
+            return;
+        }
+        final Alliance them = us.opposite();
+        final long ownUnmovedRooks = getPieces(us, PieceType.ROOK) & this.unmovedPieces;
+        if (BitboardUtils.isSet(ownUnmovedRooks, kingSquare + 3) &&
+                !BitboardUtils.isSet(this.occupancy, kingSquare + 1) && !BitboardUtils.isSet(this.occupancy, kingSquare + 2) &&
+                !isSquareAttacked(kingSquare, them) && !isSquareAttacked(kingSquare + 1, them) &&
+                !isSquareAttacked(kingSquare + 2, them)) {
+            moves.add(PackedMove.create(kingSquare, kingSquare + 2, PackedMove.KING_CASTLE));
+        }
+        if (BitboardUtils.isSet(ownUnmovedRooks, kingSquare - 4) &&
+                !BitboardUtils.isSet(this.occupancy, kingSquare - 1) && !BitboardUtils.isSet(this.occupancy, kingSquare - 2) &&
+                !BitboardUtils.isSet(this.occupancy, kingSquare - 3) &&
+                !isSquareAttacked(kingSquare, them) && !isSquareAttacked(kingSquare - 1, them) &&
+                !isSquareAttacked(kingSquare - 2, them)) {
+            moves.add(PackedMove.create(kingSquare, kingSquare - 2, PackedMove.QUEEN_CASTLE));
+        }
+    }
+
+    // Di nuoc (PackedMove lay tu generatePseudoLegalMoves) va luu lai thong tin de unmakeMove.
+    // Tra ve false neu nuoc di de vua cua minh bi chieu; khi do van phai goi unmakeMove.
+    public boolean makeMove(final int move) {
+        final int from = PackedMove.getFrom(move);
+        final int to = PackedMove.getTo(move);
+        final Alliance us = this.sideToMove;
+        final int movedIndex = this.mailbox[from];
+        final long keyAfterMove = zobristKeyAfter(move);
+
+        pushUndo(move);
+        this.zobristKey = keyAfterMove;
+        final int capturedSquare = PackedMove.isEnPassant(move) ? to - BitboardUtils.pawnAdvance(us) : to;
+        final int capturedIndex = this.mailbox[capturedSquare];
+        this.undoCaptured[this.undoSize - 1] = capturedIndex;
+        this.halfmoveClock = capturedIndex != NO_PIECE || pieceTypeOf(movedIndex) == PieceType.PAWN ?
+                0 : this.halfmoveClock + 1;
+        if (capturedIndex != NO_PIECE) {
+            removePiece(capturedIndex, capturedSquare);
+        }
+        removePiece(movedIndex, from);
+        putPiece(PackedMove.isPromotion(move) ? pieceIndex(us, PackedMove.getPromotionType(move)) : movedIndex, to);
+        this.unmovedPieces &= ~(BitboardUtils.squareBit(from) | BitboardUtils.squareBit(to));
+
+        if (PackedMove.isCastle(move)) {
+            final int rookFrom = castleRookFrom(move);
+            final int rookIndex = this.mailbox[rookFrom];
+            removePiece(rookIndex, rookFrom);
+            putPiece(rookIndex, castleRookTo(move));
+            this.unmovedPieces &= ~BitboardUtils.squareBit(rookFrom);
+        }
+        if (pieceTypeOf(movedIndex) == PieceType.KING) {
+            this.castled[us.ordinal()] = PackedMove.isCastle(move);   // giong King.movePiece: vua di lai thi mat co da nhap thanh
+        }
+        this.enPassantSquare = PackedMove.isDoublePawnPush(move) ? to - BitboardUtils.pawnAdvance(us) : NO_SQUARE;
+        this.sideToMove = us.opposite();
+        return !isInCheck(us);
+    }
+
+    public void unmakeMove() {
+        this.undoSize--;
+        final int move = this.undoMoves[this.undoSize];
+        final int from = PackedMove.getFrom(move);
+        final int to = PackedMove.getTo(move);
+        final Alliance us = this.sideToMove.opposite();
+        final int pieceAtDestination = this.mailbox[to];
+
+        removePiece(pieceAtDestination, to);
+        putPiece(PackedMove.isPromotion(move) ? pieceIndex(us, PieceType.PAWN) : pieceAtDestination, from);
+        if (PackedMove.isCastle(move)) {
+            final int rookTo = castleRookTo(move);
+            final int rookIndex = this.mailbox[rookTo];
+            removePiece(rookIndex, rookTo);
+            putPiece(rookIndex, castleRookFrom(move));
+        }
+        final int capturedIndex = this.undoCaptured[this.undoSize];
+        if (capturedIndex != NO_PIECE) {
+            putPiece(capturedIndex, PackedMove.isEnPassant(move) ? to - BitboardUtils.pawnAdvance(us) : to);
+        }
+        this.enPassantSquare = this.undoEnPassant[this.undoSize];
+        this.unmovedPieces = this.undoUnmoved[this.undoSize];
+        this.castled[0] = (this.undoCastled[this.undoSize] & 1) != 0;
+        this.castled[1] = (this.undoCastled[this.undoSize] & 2) != 0;
+        this.zobristKey = this.undoKeys[this.undoSize];
+        this.halfmoveClock = this.undoHalfmoveClock[this.undoSize];
+        this.sideToMove = us;
+    }
+
+    // Nuoc trong (null move): chi nhuong luot cho doi thu va xoa o bat tot qua duong, dung cho null move pruning.
+    // Phai goi unmakeNullMove (khong phai unmakeMove) de tra lai.
+    public void makeNullMove() {
+        final Alliance us = this.sideToMove;
+        long key = this.zobristKey ^ Zobrist.sideToMove(us) ^ Zobrist.sideToMove(us.opposite());
+        if (isEnPassantCapturable()) {
+            key ^= Zobrist.enPassantFile(this.enPassantSquare);
+        }
+        pushUndo(PackedMove.NULL_MOVE);
+        this.undoCaptured[this.undoSize - 1] = NO_PIECE;
+        this.zobristKey = key;
+        this.halfmoveClock++;
+        this.enPassantSquare = NO_SQUARE;
+        this.sideToMove = us.opposite();
+    }
+
+    public void unmakeNullMove() {
+        this.undoSize--;
+        this.enPassantSquare = this.undoEnPassant[this.undoSize];
+        this.zobristKey = this.undoKeys[this.undoSize];
+        this.halfmoveClock = this.undoHalfmoveClock[this.undoSize];
+        this.sideToMove = this.sideToMove.opposite();
+    }
+
+    // Con ma, tuong, xe hoac hau; chi con vua va tot thi de roi vao zugzwang, khong nen thu null move
+    public boolean hasNonPawnMaterial(final Alliance alliance) {
+        return (getPieces(alliance, PieceType.KNIGHT) | getPieces(alliance, PieceType.BISHOP) |
+                getPieces(alliance, PieceType.ROOK) | getPieces(alliance, PieceType.QUEEN)) != BitboardUtils.EMPTY;
+    }
+
+    // Khoa Zobrist cua the co sau nuoc di, chi XOR cac phan thay doi; khong lam thay doi ban co.
+    // makeMove dung ham nay, Move.execute cung dung de Board moi khong phai tinh lai khoa tu dau.
+    public long zobristKeyAfter(final int move) {
+        final int from = PackedMove.getFrom(move);
+        final int to = PackedMove.getTo(move);
+        final Alliance us = this.sideToMove;
+        final int movedIndex = this.mailbox[from];
+        long key = this.zobristKey ^ Zobrist.sideToMove(us) ^ Zobrist.sideToMove(us.opposite());
+
+        final int capturedSquare = PackedMove.isEnPassant(move) ? to - BitboardUtils.pawnAdvance(us) : to;
+        final int capturedIndex = this.mailbox[capturedSquare];
+        if (capturedIndex != NO_PIECE) {
+            key ^= Zobrist.pieceSquare(capturedIndex, capturedSquare);
+        }
+        key ^= Zobrist.pieceSquare(movedIndex, from);
+        key ^= Zobrist.pieceSquare(PackedMove.isPromotion(move) ? pieceIndex(us, PackedMove.getPromotionType(move)) : movedIndex, to);
+        long unmovedAfter = this.unmovedPieces & ~(BitboardUtils.squareBit(from) | BitboardUtils.squareBit(to));
+        if (PackedMove.isCastle(move)) {
+            final int rookFrom = castleRookFrom(move);
+            final int rookIndex = this.mailbox[rookFrom];
+            key ^= Zobrist.pieceSquare(rookIndex, rookFrom) ^ Zobrist.pieceSquare(rookIndex, castleRookTo(move));
+            unmovedAfter &= ~BitboardUtils.squareBit(rookFrom);
+        }
+        // Cac o van con bit "chua di" thi quan tren do khong doi, nen tinh quyen nhap thanh tren ban co hien tai duoc
+        key ^= Zobrist.castling(getCastlingRights()) ^ Zobrist.castling(castlingRights(unmovedAfter));
+
+        if (isEnPassantCapturable()) {
+            key ^= Zobrist.enPassantFile(this.enPassantSquare);
+        }
+        if (PackedMove.isDoublePawnPush(move)) {
+            final int jumpedSquare = to - BitboardUtils.pawnAdvance(us);
+            if ((BitboardUtils.PAWN_ATTACKS[us.ordinal()][jumpedSquare] & getPieces(us.opposite(), PieceType.PAWN)) != BitboardUtils.EMPTY) {
+                key ^= Zobrist.enPassantFile(jumpedSquare);
+            }
+        }
+        return key;
+    }
+
+    private static int castleRookFrom(final int move) {
+        return PackedMove.getFlags(move) == PackedMove.KING_CASTLE ? PackedMove.getFrom(move) + 3 : PackedMove.getFrom(move) - 4;
+    }
+
+    private static int castleRookTo(final int move) {
+        return PackedMove.getFlags(move) == PackedMove.KING_CASTLE ? PackedMove.getFrom(move) + 1 : PackedMove.getFrom(move) - 1;
+    }
+
+    // Chi sinh nuoc di hop le cho ben dang di: tinh truoc cac quan dang chieu va cac quan bi ghim,
+    // nen khong can makeMove roi kiem tra vua nhu generatePseudoLegalMoves
+    public void generateLegalMoves(final MoveList moves) {
+        moves.clear();
+        generateLegalMoves(moves, this.sideToMove);
+    }
+
+    // Con it nhat mot nuoc di hop le hay khong (khong con thi la chieu het hoac hoa pat)
+    public boolean hasLegalMove() {
+        return hasLegalMove(this.sideToMove);
+    }
+
+    // Dung duoc cho ca ben khong den luot (Player.isInCheckmate cua doi thu), khong thay doi ban co
+    public boolean hasLegalMove(final Alliance alliance) {
+        final MoveList moves = new MoveList();
+        generateLegalMoves(moves, alliance);
+        return !moves.isEmpty();
+    }
+
+    private void generateLegalMoves(final MoveList moves, final Alliance us) {
+        final Alliance them = us.opposite();
+        final int kingSquare = getKingSquare(us);
+        final long ownPieces = getOccupancy(us);
+        final long enemyPieces = getOccupancy(them);
+        final long checkers = attackersTo(kingSquare, them);
+
+        // Vua: o den khong bi tan cong khi da nhac vua ra khoi ban (de quan truot chieu xuyen qua vi tri cu)
+        final long occupancyWithoutKing = this.occupancy & ~BitboardUtils.squareBit(kingSquare);
+        long kingDestinations = BitboardUtils.KING_ATTACKS[kingSquare] & ~ownPieces;
+        while (kingDestinations != 0) {
+            final int to = Long.numberOfTrailingZeros(kingDestinations);
+            kingDestinations &= kingDestinations - 1;
+            if (!isSquareAttacked(to, them, occupancyWithoutKing)) {
+                moves.add(PackedMove.create(kingSquare, to, BitboardUtils.isSet(enemyPieces, to) ? PackedMove.CAPTURE : PackedMove.QUIET));
+            }
+        }
+        if (Long.bitCount(checkers) > 1) {
+            return;   // bi chieu doi thi chi co the di vua
+        }
+        // Bi chieu don: phai an quan chieu hoac chan giua quan chieu va vua
+        final long targetMask = checkers == 0 ? ~ownPieces :
+                checkers | BitboardUtils.BETWEEN[kingSquare][Long.numberOfTrailingZeros(checkers)];
+        final long pinned = pinnedPieces(us, kingSquare);
+
+        long pieces = ownPieces & ~getPieces(us, PieceType.PAWN) & ~getPieces(us, PieceType.KING);
+        while (pieces != 0) {
+            final int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long destinations = attacksFrom(from) & ~ownPieces & targetMask;
+            if (BitboardUtils.isSet(pinned, from)) {
+                destinations &= BitboardUtils.LINE[kingSquare][from];   // quan bi ghim chi di tren duong ghim
+            }
+            addMoves(moves, from, destinations & enemyPieces, PackedMove.CAPTURE);
+            addMoves(moves, from, destinations & ~enemyPieces, PackedMove.QUIET);
+        }
+        generateLegalPawnMoves(moves, us, kingSquare, enemyPieces, targetMask, pinned, checkers);
+        if (checkers == 0) {
+            generateCastles(moves, us);
+        }
+    }
+
+    private void generateLegalPawnMoves(final MoveList moves, final Alliance us, final int kingSquare, final long enemyPieces,
+                                        final long targetMask, final long pinned, final long checkers) {
+        final int advance = BitboardUtils.pawnAdvance(us);
+        final long promotionRow = us.isWhite() ? BitboardUtils.ROWS[0] : BitboardUtils.ROWS[7];
+        final long startRow = us.isWhite() ? BitboardUtils.ROWS[6] : BitboardUtils.ROWS[1];
+        long pawns = getPieces(us, PieceType.PAWN);
+        while (pawns != 0) {
+            final int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            final long allowed = BitboardUtils.isSet(pinned, from) ? targetMask & BitboardUtils.LINE[kingSquare][from] : targetMask;
+            final int pushSquare = from + advance;
+            if (!BitboardUtils.isSet(this.occupancy, pushSquare)) {
+                addPawnMoves(moves, from, BitboardUtils.squareBit(pushSquare) & allowed, promotionRow, false);
+                final int jumpSquare = pushSquare + advance;
+                if (BitboardUtils.isSet(this.unmovedPieces & startRow, from) && !BitboardUtils.isSet(this.occupancy, jumpSquare) &&
+                        BitboardUtils.isSet(allowed, jumpSquare)) {
+                    moves.add(PackedMove.create(from, jumpSquare, PackedMove.DOUBLE_PAWN_PUSH));
+                }
+            }
+            final long attacks = BitboardUtils.PAWN_ATTACKS[us.ordinal()][from];
+            addPawnMoves(moves, from, attacks & enemyPieces & allowed, promotionRow, true);
+            if (us == this.sideToMove && this.enPassantSquare != NO_SQUARE && BitboardUtils.isSet(attacks, this.enPassantSquare) &&
+                    isLegalEnPassant(us, kingSquare, from, checkers)) {
+                moves.add(PackedMove.create(from, this.enPassantSquare, PackedMove.EN_PASSANT));
+            }
+        }
+    }
+
+    // Bat tot qua duong lay di hai quan tren cung mot hang, nen kiem tra truc tiep bang occupancy sau khi an
+    private boolean isLegalEnPassant(final Alliance us, final int kingSquare, final int from, final long checkers) {
+        final Alliance them = us.opposite();
+        final int capturedSquare = this.enPassantSquare - BitboardUtils.pawnAdvance(us);
+        final long nonSliderCheckers = checkers & ~BitboardUtils.squareBit(capturedSquare) &
+                (getPieces(them, PieceType.PAWN) | getPieces(them, PieceType.KNIGHT));
+        if (nonSliderCheckers != 0) {
+            return false;
+        }
+        final long occupancyAfter = (this.occupancy & ~BitboardUtils.squareBit(from) & ~BitboardUtils.squareBit(capturedSquare)) |
+                BitboardUtils.squareBit(this.enPassantSquare);
+        final long queens = getPieces(them, PieceType.QUEEN);
+        return (BitboardUtils.rookAttacks(kingSquare, occupancyAfter) & (getPieces(them, PieceType.ROOK) | queens)) == 0 &&
+               (BitboardUtils.bishopAttacks(kingSquare, occupancyAfter) & (getPieces(them, PieceType.BISHOP) | queens)) == 0;
+    }
+
+    // Quan cua us dung mot minh giua vua va mot quan truot cua doi thu
+    private long pinnedPieces(final Alliance us, final int kingSquare) {
+        final Alliance them = us.opposite();
+        final long enemyPieces = getOccupancy(them);
+        final long queens = getPieces(them, PieceType.QUEEN);
+        long snipers = (BitboardUtils.rookAttacks(kingSquare, enemyPieces) & (getPieces(them, PieceType.ROOK) | queens)) |
+                       (BitboardUtils.bishopAttacks(kingSquare, enemyPieces) & (getPieces(them, PieceType.BISHOP) | queens));
+        long pinned = BitboardUtils.EMPTY;
+        while (snipers != 0) {
+            final int sniperSquare = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            final long blockers = BitboardUtils.BETWEEN[kingSquare][sniperSquare] & this.occupancy;
+            if (Long.bitCount(blockers) == 1 && (blockers & getOccupancy(us)) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    // So nuoc da make ma chua unmake, dung lam chi so tang cho cac bang theo tang cua tim kiem
+    public int getPly() {
+        return this.undoSize;
+    }
+
+    // Nuoc vua di (PackedMove.NULL_MOVE neu chua make nuoc nao tu khi tao BitBoard hoac nuoc vua roi la null move)
+    public int getLastMove() {
+        return this.undoSize == 0 ? PackedMove.NULL_MOVE : this.undoMoves[this.undoSize - 1];
+    }
+
+    private void pushUndo(final int move) {
+        if (this.undoSize == this.undoMoves.length) {
+            final int capacity = this.undoSize * 2;
+            this.undoMoves = Arrays.copyOf(this.undoMoves, capacity);
+            this.undoCaptured = Arrays.copyOf(this.undoCaptured, capacity);
+            this.undoEnPassant = Arrays.copyOf(this.undoEnPassant, capacity);
+            this.undoUnmoved = Arrays.copyOf(this.undoUnmoved, capacity);
+            this.undoCastled = Arrays.copyOf(this.undoCastled, capacity);
+            this.undoKeys = Arrays.copyOf(this.undoKeys, capacity);
+            this.undoHalfmoveClock = Arrays.copyOf(this.undoHalfmoveClock, capacity);
+        }
+        this.undoMoves[this.undoSize] = move;
+        this.undoEnPassant[this.undoSize] = this.enPassantSquare;
+        this.undoUnmoved[this.undoSize] = this.unmovedPieces;
+        this.undoCastled[this.undoSize] = (this.castled[0] ? 1 : 0) | (this.castled[1] ? 2 : 0);
+        this.undoKeys[this.undoSize] = this.zobristKey;
+        this.undoHalfmoveClock[this.undoSize] = this.halfmoveClock;
+        this.undoSize++;
+    }
+
+    private void putPiece(final int pieceIndex, final int square) {
+        final long bit = BitboardUtils.squareBit(square);
+        this.pieceBitboards[pieceIndex] |= bit;
+        this.allianceOccupancy[pieceIndex / NUM_PIECE_TYPES] |= bit;
+        this.occupancy |= bit;
+        this.mailbox[square] = pieceIndex;
+    }
+
+    private void removePiece(final int pieceIndex, final int square) {
+        final long bit = ~BitboardUtils.squareBit(square);
+        this.pieceBitboards[pieceIndex] &= bit;
+        this.allianceOccupancy[pieceIndex / NUM_PIECE_TYPES] &= bit;
+        this.occupancy &= bit;
+        this.mailbox[square] = NO_PIECE;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            final int index = this.mailbox[square];
+            final String tileText = index == NO_PIECE ? "-" : allianceOf(index).isBlack() ?
+                    pieceTypeOf(index).toString().toLowerCase() : pieceTypeOf(index).toString();
+            builder.append(String.format("%3s", tileText));
+            if ((square + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,131 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+
+public class BitboardUtils {
+    // Bit i cua mot bitboard tuong ung voi o co toa do i (0 = a8, 63 = h1), giong cach danh so cua Tile
+    public static final long EMPTY = 0L;
+    public static final long[] COLUMNS = initColumns(); //COLUMNS[0] = cot a, COLUMNS[7] = cot h
+    public static final long[] ROWS = initRows();       //ROWS[0] = hang 8, ROWS[7] = hang 1
+
+    public static final long[] KNIGHT_ATTACKS = initLeaperAttacks(new int[][] {
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}});
+    public static final long[] KING_ATTACKS = initLeaperAttacks(new int[][] {
+            {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}});
+    public static final long[][] PAWN_ATTACKS = {
+            initLeaperAttacks(new int[][] {{-1, -1}, {-1, 1}}), //quan trang di len (ve phia o 0)
+            initLeaperAttacks(new int[][] {{1, -1}, {1, 1}})    //quan den di xuong
+    };
+
+    // BETWEEN[a][b]: cac o nam giua a va b (khong tinh a, b) neu a, b cung hang/cot/duong cheo, nguoc lai EMPTY.
+    // LINE[a][b]: ca duong thang di qua a va b (tinh ca a, b), EMPTY neu khong thang hang.
+    public static final long[][] BETWEEN = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+    public static final long[][] LINE = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    static {
+        for (int from = 0; from < BoardUtils.NUM_TILES; from++) {
+            for (int to = 0; to < BoardUtils.NUM_TILES; to++) {
+                if (from == to) {
+                    continue;
+                }
+                for (final int[][] directions : new int[][][] {ROOK_DIRECTIONS, BISHOP_DIRECTIONS}) {
+                    if (isSet(slidingAttacks(from, EMPTY, directions), to)) {
+                        BETWEEN[from][to] = slidingAttacks(from, squareBit(to), directions) &
+                                slidingAttacks(to, squareBit(from), directions);
+                        LINE[from][to] = (slidingAttacks(from, EMPTY, directions) & slidingAttacks(to, EMPTY, directions)) |
+                                squareBit(from) | squareBit(to);
+                    }
+                }
+            }
+        }
+    }
+
+    private BitboardUtils() {
+        throw new RuntimeException("You can not instantiate me!");
+    }
+
+    private static long[] initColumns() {
+        final long[] columns = new long[BoardUtils.NUM_TILES_PER_ROW];
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            columns[square % BoardUtils.NUM_TILES_PER_ROW] |= squareBit(square);
+        }
+        return columns;
+    }
+
+    private static long[] initRows() {
+        final long[] rows = new long[BoardUtils.NUM_TILES_PER_ROW];
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            rows[square / BoardUtils.NUM_TILES_PER_ROW] |= squareBit(square);
+        }
+        return rows;
+    }
+
+    private static long[] initLeaperAttacks(final int[][] offsets) {
+        final long[] attacks = new long[BoardUtils.NUM_TILES];
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            final int row = square / BoardUtils.NUM_TILES_PER_ROW;
+            final int column = square % BoardUtils.NUM_TILES_PER_ROW;
+            for (final int[] offset : offsets) {
+                final int targetRow = row + offset[0];
+                final int targetColumn = column + offset[1];
+                if (isOnBoard(targetRow, targetColumn)) {
+                    attacks[square] |= squareBit(targetRow * BoardUtils.NUM_TILES_PER_ROW + targetColumn);
+                }
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean isOnBoard(final int row, final int column) {
+        return row >= 0 && row < BoardUtils.NUM_TILES_PER_ROW && column >= 0 && column < BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    public static long squareBit(final int square) {
+        return 1L << square;
+    }
+
+    public static boolean isSet(final long bitboard, final int square) {
+        return (bitboard & (1L << square)) != 0;
+    }
+
+    public static int pawnAdvance(final Alliance alliance) {
+        return alliance.getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    public static long rookAttacks(final int square, final long occupancy) {
+        return MagicBitboards.rookAttacks(square, occupancy);
+    }
+
+    public static long bishopAttacks(final int square, final long occupancy) {
+        return MagicBitboards.bishopAttacks(square, occupancy);
+    }
+
+    public static long queenAttacks(final int square, final long occupancy) {
+        return rookAttacks(square, occupancy) | bishopAttacks(square, occupancy);
+    }
+
+    // Di theo tung tia cho den khi gap quan chan (o bi chan van duoc tinh la bi tan cong).
+    // Chi dung de dung bang magic trong MagicBitboards, luc tim nuoc di thi tra bang
+    static long slidingAttacks(final int square, final long occupancy, final int[][] directions) {
+        long attacks = EMPTY;
+        final int row = square / BoardUtils.NUM_TILES_PER_ROW;
+        final int column = square % BoardUtils.NUM_TILES_PER_ROW;
+        for (final int[] direction : directions) {
+            int targetRow = row + direction[0];
+            int targetColumn = column + direction[1];
+            while (isOnBoard(targetRow, targetColumn)) {
+                final long target = squareBit(targetRow * BoardUtils.NUM_TILES_PER_ROW + targetColumn);
+                attacks |= target;
+                if ((occupancy & target) != 0) {
+                    break;
+                }
+                targetRow += direction[0];
+                targetColumn += direction[1];
+            }
+        }
+        return attacks;
+    }
+}
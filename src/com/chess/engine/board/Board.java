@@ -16,6 +16,10 @@ public class Board {
     private final List<Tile> gameBoard;
     private final Collection<Piece> blackPieces;
     private final Collection<Piece> whitePieces;
+    private final BitBoard bitBoard;
+    // Nuoc di cua cac quan (chua gom nhap thanh), chi sinh khi co nguoi hoi lan dau
+    private Collection<Move> whiteStandardLegalMoves;
+    private Collection<Move> blackStandardLegalMoves;
 
     private final WhitePlayer whitePlayer;
     private final BlackPlayer blackPlayer;
@@ -28,12 +32,11 @@ public class Board {
         this.blackPieces = calculateActivePiece(this.gameBoard, Alliance.BLACK);
         this.whitePieces = calculateActivePiece(this.gameBoard, Alliance.WHITE);
         this.enPassantPawn = builder.enPassantPawn;
+        this.bitBoard = new BitBoard(builder.boardConfig, builder.nextMoveMaker, builder.enPassantPawn, builder.zobristKey,
+                builder.halfmoveClock, builder.keyHistory);
 
-        final Collection<Move> whiteStandardLegalMove = calculateLegalMove(this.whitePieces);
-        final Collection<Move> blackStandardLegalMove = calculateLegalMove(this.blackPieces);
-
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMove, blackStandardLegalMove);
-        this.blackPlayer = new BlackPlayer(this, blackStandardLegalMove, whiteStandardLegalMove);
+        this.whitePlayer = new WhitePlayer(this);
+        this.blackPlayer = new BlackPlayer(this);
         this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
     }
 
@@ -63,6 +66,50 @@ public class Board {
     	return this.enPassantPawn;
     }
 
+    public BitBoard getBitBoard() {
+        return this.bitBoard;
+    }
+
+    public long getZobristKey() {
+        return this.bitBoard.getZobristKey();
+    }
+
+    // So nua nuoc tu lan an quan/di tot gan nhat (luat 50 nuoc)
+    public int getHalfmoveClock() {
+        return this.bitBoard.getHalfmoveClock();
+    }
+
+    // Van co hoa vi lap lai 3 lan, chi xet cac the co tu lan an quan/di tot gan nhat
+    public boolean isThreefoldRepetition() {
+        return this.bitBoard.isThreefoldRepetition();
+    }
+
+    public boolean isFiftyMoveDraw() {
+        return this.bitBoard.isFiftyMoveDraw();
+    }
+
+    // Nuoc an nay lai hay lo vat chat sau khi hai ben an qua lai het tren o dich, xem BitBoard.see
+    public int see(final Move move) {
+        return this.bitBoard.see(PackedMove.fromMove(move));
+    }
+
+    @Override
+    public int hashCode() {
+        final long key = getZobristKey();
+        return (int) (key ^ (key >>> 32));
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof final Board otherBoard)) {
+            return false;
+        }
+        return this.bitBoard.hasSamePosition(otherBoard.bitBoard);
+    }
+
     public Collection<Piece> getBlackPieces(){
         return this.blackPieces;
     }
@@ -71,12 +118,27 @@ public class Board {
         return this.whitePieces;
     }
 
+    public Collection<Move> getStandardLegalMoves(final Alliance alliance) {
+        if (alliance.isWhite()) {
+            if (this.whiteStandardLegalMoves == null) {
+                this.whiteStandardLegalMoves = calculateLegalMove(this.whitePieces);
+            }
+            return this.whiteStandardLegalMoves;
+        }
+        if (this.blackStandardLegalMoves == null) {
+            this.blackStandardLegalMoves = calculateLegalMove(this.blackPieces);
+        }
+        return this.blackStandardLegalMoves;
+    }
+
+    // Sap xep on dinh theo priorityOrder (nuoc an quan truoc); PriorityQueue chep sang ArrayList thi khong giu thu tu
     private Collection<Move> calculateLegalMove(final Collection<Piece> pieces) {
-        final PriorityQueue<Move> legalMoves = new PriorityQueue<>((move1, move2) -> move2.getPriorityOrder() - move1.getPriorityOrder());
+        final List<Move> legalMoves = new ArrayList<>();
         for (final Piece piece : pieces){
             legalMoves.addAll(piece.calculateLegalMove(this));
         }
-        return new ArrayList<>(legalMoves);
+        legalMoves.sort((move1, move2) -> move2.getPriorityOrder() - move1.getPriorityOrder());
+        return Collections.unmodifiableList(legalMoves);
     }
 
     private static Collection<Piece> calculateActivePiece(final List<Tile> gameBoard, final Alliance alliance) {
@@ -152,55 +214,22 @@ public class Board {
 
     // not enough sufficient pieces to mate, lead to the draw
     public boolean isInInsufficientToMate(){
-        Map<PieceType, Integer> countBlackPieces = new HashMap<>();
-        Map<PieceType, Integer> countWhitePieces = new HashMap<>();
-        countBlackPieces.put(PieceType.BISHOP, 0);
-        countBlackPieces.put(PieceType.KNIGHT, 0);
-        countBlackPieces.put(PieceType.KING, 0);
-        countWhitePieces.put(PieceType.BISHOP, 0);
-        countWhitePieces.put(PieceType.KNIGHT, 0);
-        countWhitePieces.put(PieceType.KING, 0);
-
-        for (Piece piece: this.blackPieces){
-            if (!(piece.getPieceType() == PieceType.KING ||
-                  piece.getPieceType() == PieceType.BISHOP ||
-                  piece.getPieceType() == PieceType.KNIGHT)) return false;
-            PieceType pieceType = piece.getPieceType();
-            countBlackPieces.put(pieceType, countBlackPieces.get(pieceType) + 1);
-        }
-        for (Piece piece: this.whitePieces) {
-            if (!(piece.getPieceType() == PieceType.KING ||
-                  piece.getPieceType() == PieceType.BISHOP ||
-                  piece.getPieceType() == PieceType.KNIGHT)) return false;
-            PieceType pieceType = piece.getPieceType();
-            countWhitePieces.put(pieceType, countWhitePieces.get(pieceType) + 1);
-        }
-        int totalBishopLeft = countBlackPieces.get(PieceType.BISHOP) + countWhitePieces.get(PieceType.BISHOP);
-        int totalKnightLeft = countBlackPieces.get(PieceType.KNIGHT) + countWhitePieces.get(PieceType.KNIGHT);
+        final long heavyPieces = this.bitBoard.getPieces(Alliance.WHITE, PieceType.PAWN) | this.bitBoard.getPieces(Alliance.BLACK, PieceType.PAWN) |
+                this.bitBoard.getPieces(Alliance.WHITE, PieceType.ROOK) | this.bitBoard.getPieces(Alliance.BLACK, PieceType.ROOK) |
+                this.bitBoard.getPieces(Alliance.WHITE, PieceType.QUEEN) | this.bitBoard.getPieces(Alliance.BLACK, PieceType.QUEEN);
+        if (heavyPieces != 0) return false;
+        final long whiteBishops = this.bitBoard.getPieces(Alliance.WHITE, PieceType.BISHOP);
+        final long blackBishops = this.bitBoard.getPieces(Alliance.BLACK, PieceType.BISHOP);
+        final int totalBishopLeft = Long.bitCount(whiteBishops) + Long.bitCount(blackBishops);
+        final int totalKnightLeft = Long.bitCount(this.bitBoard.getPieces(Alliance.WHITE, PieceType.KNIGHT)) +
+                Long.bitCount(this.bitBoard.getPieces(Alliance.BLACK, PieceType.KNIGHT));
 
         if (totalBishopLeft == 0 && totalKnightLeft <= 1) return true; // in case king vs king or king vs king + 1 knight
         if (totalBishopLeft == 1 && totalKnightLeft == 0) return true; // in case king vs king + 1 bishop
         // in case two bishops left
-        if (totalBishopLeft == 2 && totalKnightLeft == 0){
-            if (countBlackPieces.get(PieceType.BISHOP) == 1){
-                Bishop blackBishop = null, whiteBishop = null;
-                for (Piece piece: blackPieces){
-                    if (piece.getPieceType() == PieceType.BISHOP) {
-                        blackBishop = (Bishop) piece;
-                        break;
-                    }
-                }
-                for (Piece piece: whitePieces){
-                    if (piece.getPieceType() == PieceType.BISHOP) {
-                        whiteBishop = (Bishop) piece;
-                        break;
-                    }
-                }
-                // if two bishop is in the same color
-                assert blackBishop != null;
-                assert whiteBishop != null;
-                return (blackBishop.getPiecePosition() - whiteBishop.getPiecePosition()) % 2 == 0;
-            }
+        if (totalBishopLeft == 2 && totalKnightLeft == 0 && Long.bitCount(blackBishops) == 1){
+            // if two bishop is in the same color
+            return (Long.numberOfTrailingZeros(blackBishops) - Long.numberOfTrailingZeros(whiteBishops)) % 2 == 0;
         }
         return false;
     }
@@ -209,9 +238,13 @@ public class Board {
         Map<Integer, Piece> boardConfig;
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
+        Long zobristKey;
+        int halfmoveClock;
+        long[] keyHistory;
 
         public Builder(){
             this.boardConfig = new HashMap<>();
+            this.keyHistory = new long[0];
         }
 
         public Builder setPiece(final Piece piece){
@@ -231,5 +264,25 @@ public class Board {
         public void setEnPassantPawn(Pawn enPassantPawn) {
             this.enPassantPawn = enPassantPawn;
         }
+
+        // Khoa Zobrist da cap nhat tu the co truoc; khong dat thi Board tu tinh tu dau
+        public Builder setZobristKey(final long zobristKey) {
+            this.zobristKey = zobristKey;
+            return this;
+        }
+
+        // Dong ho 50 nuoc khi dung the co tu dau (FEN); nuoc di thi dung setPreviousPosition
+        public Builder setHalfmoveClock(final int halfmoveClock) {
+            this.halfmoveClock = halfmoveClock;
+            return this;
+        }
+
+        // Board moi la ket qua mot nuoc di tu previous: an quan/di tot thi dong ho ve 0 va bo lich su, vi cac the co
+        // cu khong the lap lai nua; nguoc lai noi them the co previous vao lich su khoa
+        Builder setPreviousPosition(final Board previous, final boolean irreversible) {
+            this.halfmoveClock = irreversible ? 0 : previous.getHalfmoveClock() + 1;
+            this.keyHistory = irreversible ? new long[0] : previous.bitBoard.keyHistoryAfterMove();
+            return this;
+        }
     }
 }
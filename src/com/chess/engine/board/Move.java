@@ -100,9 +100,21 @@ public abstract class Move {
         }
         builder.setPiece(this.movedPiece.movePiece(this));
         builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+        setStateAfterMove(builder);
         return builder.build();
     }
 
+    // Khoa cua Board sau nuoc di nay, tinh tu khoa cua Board hien tai
+    protected long zobristKeyAfterMove() {
+        return this.board.getBitBoard().zobristKeyAfter(PackedMove.fromMove(this));
+    }
+
+    // Khoa Zobrist, dong ho 50 nuoc va lich su khoa cua Board sau nuoc di nay
+    protected void setStateAfterMove(final Board.Builder builder) {
+        builder.setZobristKey(zobristKeyAfterMove());
+        builder.setPreviousPosition(this.board, isAttack() || this.movedPiece.getPieceType() == Piece.PieceType.PAWN);
+    }
+
     public static class MajorAttackMove extends AttackMove {
     	public MajorAttackMove(final Board board, final Piece pieceMoved, final int destinationCoordinate,
                                final Piece pieceAttacked) {
@@ -239,6 +251,7 @@ public abstract class Move {
         	}
         	builder.setPiece(this.movedPiece.movePiece(this));
         	builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+        	setStateAfterMove(builder);
         	return builder.build();
         }
         
@@ -287,6 +300,7 @@ public abstract class Move {
             //////TODO MORE
             builder.setPiece(promotionPiece);
             builder.setMoveMaker(pawnMovedBoard.currentPlayer().getAlliance());
+            setStateAfterMove(builder);
             return builder.build();
         }
 
@@ -331,6 +345,7 @@ public abstract class Move {
             builder.setPiece(movedPawn);
             builder.setEnPassantPawn(movedPawn);
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            setStateAfterMove(builder);
             return builder.build();
         }
 
@@ -371,8 +386,9 @@ public abstract class Move {
                 builder.setPiece(piece);
             }
             builder.setPiece(this.movedPiece.movePiece(this));
-            builder.setPiece(new Rook(this.castleRookDestination, this.castleRook.getPieceAlliance()));
+            builder.setPiece(new Rook(this.castleRookDestination, this.castleRook.getPieceAlliance(), false));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            setStateAfterMove(builder);
             return builder.build();
         }
         @Override
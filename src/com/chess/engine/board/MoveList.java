@@ -0,0 +1,80 @@
+package com.chess.engine.board;
+
+import java.util.Arrays;
+
+public class MoveList {
+    // Danh sach nuoc di PackedMove dung lai duoc: moi tang tim kiem giu mot MoveList, clear() roi sinh lai,
+    // khong tao doi tuong moi cho tung nuoc di
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this.moves = new int[DEFAULT_CAPACITY];
+        this.size = 0;
+    }
+
+    public void add(final int move) {
+        if (this.size == this.moves.length) {
+            this.moves = Arrays.copyOf(this.moves, this.size * 2);
+        }
+        this.moves[this.size++] = move;
+    }
+
+    public int get(final int index) {
+        return this.moves[index];
+    }
+
+    public void set(final int index, final int move) {
+        this.moves[index] = move;
+    }
+
+    public void swap(final int i, final int j) {
+        final int move = this.moves[i];
+        this.moves[i] = this.moves[j];
+        this.moves[j] = move;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public boolean contains(final int move) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Dua nuoc di len dau danh sach, giu nguyen thu tu cac nuoc con lai; tra ve false neu khong co trong danh sach
+    public boolean moveToFront(final int move) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.moves[i] == move) {
+                System.arraycopy(this.moves, 0, this.moves, 1, i);
+                this.moves[0] = move;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < this.size; i++) {
+            builder.append(i == 0 ? "" : ", ").append(PackedMove.toString(this.moves[i]));
+        }
+        return builder.append("]").toString();
+    }
+}
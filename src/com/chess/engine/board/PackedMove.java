@@ -0,0 +1,118 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece.PieceType;
+
+public class PackedMove {
+    // Nuoc di gom 16 bit dung trong tim kiem: bit 0-5 o di, bit 6-11 o den, bit 12-15 loai nuoc di.
+    // Loai nuoc di: bit 2 (4) la an quan, bit 3 (8) la phong cap, khi phong cap 2 bit thap la quan duoc phong.
+    public static final int NULL_MOVE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int TO_SHIFT = 6;
+    private static final int FLAGS_SHIFT = 12;
+    private static final PieceType[] PROMOTION_TYPES = {PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN};
+
+    private PackedMove() {
+        throw new RuntimeException("You can not instantiate me!");
+    }
+
+    public static int create(final int from, final int to, final int flags) {
+        return from | (to << TO_SHIFT) | (flags << FLAGS_SHIFT);
+    }
+
+    public static int createPromotion(final int from, final int to, final PieceType promotion, final boolean isCapture) {
+        return create(from, to, PROMOTION | (isCapture ? CAPTURE : 0) | promotionCode(promotion));
+    }
+
+    public static int getFrom(final int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int getTo(final int move) {
+        return (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    public static int getFlags(final int move) {
+        return move >>> FLAGS_SHIFT;
+    }
+
+    public static boolean isCapture(final int move) {
+        return (getFlags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(final int move) {
+        return (getFlags(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastle(final int move) {
+        return getFlags(move) == KING_CASTLE || getFlags(move) == QUEEN_CASTLE;
+    }
+
+    public static boolean isEnPassant(final int move) {
+        return getFlags(move) == EN_PASSANT;
+    }
+
+    public static boolean isDoublePawnPush(final int move) {
+        return getFlags(move) == DOUBLE_PAWN_PUSH;
+    }
+
+    public static PieceType getPromotionType(final int move) {
+        return isPromotion(move) ? PROMOTION_TYPES[getFlags(move) & 3] : null;
+    }
+
+    private static int promotionCode(final PieceType promotion) {
+        return switch (promotion) {
+            case KNIGHT -> 0;
+            case BISHOP -> 1;
+            case ROOK -> 2;
+            case QUEEN -> 3;
+            default -> throw new RuntimeException("Can not promote to " + promotion);
+        };
+    }
+
+    // Doi mot Move cua Board (GUI, cay khai cuoc) sang nuoc di 16 bit
+    public static int fromMove(final Move move) {
+        final int from = move.getCurrentCoordinate();
+        final int to = move.getDestinationCoordinate();
+        if (move instanceof Move.PawnPromotion promotionMove) {
+            return createPromotion(from, to, promotionMove.promotionPiece.getPieceType(), move.isAttack());
+        }
+        if (move instanceof Move.KingSideCastleMove) {
+            return create(from, to, KING_CASTLE);
+        }
+        if (move instanceof Move.QueenSideCastleMove) {
+            return create(from, to, QUEEN_CASTLE);
+        }
+        if (move instanceof Move.PawnJump) {
+            return create(from, to, DOUBLE_PAWN_PUSH);
+        }
+        if (move instanceof Move.PawnEnPassantAttackMove) {
+            return create(from, to, EN_PASSANT);
+        }
+        return create(from, to, move.isAttack() ? CAPTURE : QUIET);
+    }
+
+    // Tim lai Move tuong ung trong cac nuoc di cua ben dang di tren board, NullMove neu khong co
+    public static Move toMove(final Board board, final int move) {
+        for (final Move candidate : board.currentPlayer().getLegalMoves()) {
+            if (fromMove(candidate) == move) {
+                return candidate;
+            }
+        }
+        return new Move.NullMove();
+    }
+
+    public static String toString(final int move) {
+        final PieceType promotion = getPromotionType(move);
+        return BoardUtils.getPositionAtCoordinate(getFrom(move)) + BoardUtils.getPositionAtCoordinate(getTo(move)) +
+                (promotion == null ? "" : promotion.toString().toLowerCase());
+    }
+}
@@ -0,0 +1,77 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Random;
+
+public class Zobrist {
+    // Khoa 64 bit cua mot the co: XOR cac so ngau nhien cua tung (quan, o), ben di, quyen nhap thanh va cot bat tot qua duong.
+    // Di mot nuoc chi can XOR ra/vao vai so thay vi tinh lai tu dau.
+
+    // Quyen nhap thanh: vua va xe cung chua di tren o ban dau
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+
+    private static final int NUM_PIECES = Alliance.values().length * PieceType.values().length;
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+
+    private static final long[][] PIECE_SQUARE = new long[NUM_PIECES][BoardUtils.NUM_TILES];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[BoardUtils.NUM_TILES_PER_ROW];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        // Hat giong co dinh de khoa giong nhau giua cac lan chay (bang luu theo khoa, so sanh ket qua)
+        final Random random = new Random(SEED);
+        for (final long[] squares : PIECE_SQUARE) {
+            for (int square = 0; square < squares.length; square++) {
+                squares[square] = random.nextLong();
+            }
+        }
+        for (int rights = 1; rights < CASTLING.length; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+        throw new RuntimeException("You can not instantiate me!");
+    }
+
+    public static long pieceSquare(final int pieceIndex, final int square) {
+        return PIECE_SQUARE[pieceIndex][square];
+    }
+
+    public static long castling(final int castlingRights) {
+        return CASTLING[castlingRights];
+    }
+
+    public static long enPassantFile(final int square) {
+        return EN_PASSANT_FILE[square % BoardUtils.NUM_TILES_PER_ROW];
+    }
+
+    public static long sideToMove(final Alliance alliance) {
+        return alliance.isBlack() ? BLACK_TO_MOVE : 0L;
+    }
+
+    // Tinh lai tu dau, chi dung khi tao BitBoard khong co khoa cua the co truoc
+    static long computeKey(final BitBoard bitBoard) {
+        long key = sideToMove(bitBoard.getSideToMove()) ^ castling(bitBoard.getCastlingRights());
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            final int pieceIndex = bitBoard.getPieceIndexAt(square);
+            if (pieceIndex != BitBoard.NO_PIECE) {
+                key ^= pieceSquare(pieceIndex, square);
+            }
+        }
+        if (bitBoard.isEnPassantCapturable()) {
+            key ^= enPassantFile(bitBoard.getEnPassantSquare());
+        }
+        return key;
+    }
+}
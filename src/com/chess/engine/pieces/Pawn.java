@@ -1,6 +1,8 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.BitboardUtils;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
@@ -13,8 +15,6 @@ import java.util.Collection;
 
 public class Pawn extends Piece{
 
-    private final static int[] CANDIDATE_MOVE_COORDINATES = {7, 9, 8, 16}; //tất cả nước đi của quân tốt theo tọa độ
-
     public Pawn(final int piecePosition, final Alliance pieceAlliance) {
         super(PieceType.PAWN, piecePosition, pieceAlliance, true);
     }
@@ -26,101 +26,60 @@ public class Pawn extends Piece{
     @Override
     public Collection<Move> calculateLegalMove(final Board board) {
         final List<Move> legalMoves = new ArrayList<>();
-        for (final int currentCandidateOffset : CANDIDATE_MOVE_COORDINATES) {
-            int candidateDestinationCoordinate =
-                    this.piecePosition + (this.pieceAlliance.getDirection() * currentCandidateOffset);
-            if (!BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                continue;
+        final BitBoard bitBoard = board.getBitBoard();
+        //đi thẳng 1 ô
+        final int candidateDestinationCoordinate = this.piecePosition + BitboardUtils.pawnAdvance(this.pieceAlliance);
+        if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate) &&
+                !BitboardUtils.isSet(bitBoard.getOccupancy(), candidateDestinationCoordinate)) {
+            if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
+                legalMoves.add(new PawnPromotion(
+                        new PawnMove(board, this, candidateDestinationCoordinate), new Queen(candidateDestinationCoordinate, this.pieceAlliance, false)));
+                legalMoves.add(new PawnPromotion(
+                        new PawnMove(board, this, candidateDestinationCoordinate), new Bishop(candidateDestinationCoordinate, this.pieceAlliance, false)));
+                legalMoves.add(new PawnPromotion(
+                        new PawnMove(board, this, candidateDestinationCoordinate), new Knight(candidateDestinationCoordinate, this.pieceAlliance, false)));
+                legalMoves.add(new PawnPromotion(
+                        new PawnMove(board, this, candidateDestinationCoordinate), new Rook(candidateDestinationCoordinate, this.pieceAlliance, false)));
             }
-            if (currentCandidateOffset == 8 && !board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                    legalMoves.add(new PawnPromotion(
-                            new PawnMove(board, this, candidateDestinationCoordinate), new Queen(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                    legalMoves.add(new PawnPromotion(
-                            new PawnMove(board, this, candidateDestinationCoordinate), new Bishop(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                    legalMoves.add(new PawnPromotion(
-                            new PawnMove(board, this, candidateDestinationCoordinate), new Knight(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                    legalMoves.add(new PawnPromotion(
-                            new PawnMove(board, this, candidateDestinationCoordinate), new Rook(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                }
-                else {
-                    legalMoves.add(new PawnMove(board, this, candidateDestinationCoordinate));
-                }
+            else {
+                legalMoves.add(new PawnMove(board, this, candidateDestinationCoordinate));
             }
-            else if (currentCandidateOffset == 16 && this.isFirstMove() &&
+            //đi thẳng 2 ô ở nước đầu tiên
+            final int jumpDestinationCoordinate = candidateDestinationCoordinate + BitboardUtils.pawnAdvance(this.pieceAlliance);
+            if (this.isFirstMove() &&
                     ((BoardUtils.SECOND_RANK[this.piecePosition] && this.pieceAlliance.isWhite()) ||
-                      (BoardUtils.SEVENTH_RANK[this.piecePosition] && this.pieceAlliance.isBlack()))) {
-                final int behindCandidateDestinationCoordinate = this.piecePosition + (this.pieceAlliance.getDirection() * 8);
-                if (!board.getTile(behindCandidateDestinationCoordinate).isTileOccupied() &&
-                        !board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    legalMoves.add(new PawnJump(board, this, candidateDestinationCoordinate));
-                }
+                     (BoardUtils.SEVENTH_RANK[this.piecePosition] && this.pieceAlliance.isBlack())) &&
+                    !BitboardUtils.isSet(bitBoard.getOccupancy(), jumpDestinationCoordinate)) {
+                legalMoves.add(new PawnJump(board, this, jumpDestinationCoordinate));
             }
-            else if (currentCandidateOffset == 7 &&
-                    !(BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite() ||
-                    BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack())) {
-                if(board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                        if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                            legalMoves.add(new PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate), new Queen(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                            legalMoves.add(new PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate), new Rook(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                            legalMoves.add(new PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate), new Bishop(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                            legalMoves.add(new PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate), new Knight(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                        }
-                        else {
-                            legalMoves.add(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                        }
-                    }
-                } else if (board.getEnPassantPawn() != null && board.getEnPassantPawn().getPiecePosition() ==
-                        (this.piecePosition + (this.pieceAlliance.getOppositeDirection()))) {
-                    final Piece pieceOnCandidate = board.getEnPassantPawn();
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                        legalMoves.add(
-                                new PawnEnPassantAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-
-                    }
-                }
+        }
+        //ăn chéo: các ô tốt tấn công có quân đối phương
+        final long attacks = BitboardUtils.PAWN_ATTACKS[this.pieceAlliance.ordinal()][this.piecePosition];
+        long captures = attacks & bitBoard.getOccupancy(this.pieceAlliance.opposite());
+        while (captures != 0) {
+            final int attackDestinationCoordinate = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+            final Piece pieceOnCandidate = board.getTile(attackDestinationCoordinate).getPiece();
+            if (this.pieceAlliance.isPawnPromotionSquare(attackDestinationCoordinate)) {
+                legalMoves.add(new PawnPromotion(
+                        new PawnAttackMove(board, this, attackDestinationCoordinate, pieceOnCandidate), new Queen(attackDestinationCoordinate, this.pieceAlliance, false)));
+                legalMoves.add(new PawnPromotion(
+                        new PawnAttackMove(board, this, attackDestinationCoordinate, pieceOnCandidate), new Rook(attackDestinationCoordinate, this.pieceAlliance, false)));
+                legalMoves.add(new PawnPromotion(
+                        new PawnAttackMove(board, this, attackDestinationCoordinate, pieceOnCandidate), new Bishop(attackDestinationCoordinate, this.pieceAlliance, false)));
+                legalMoves.add(new PawnPromotion(
+                        new PawnAttackMove(board, this, attackDestinationCoordinate, pieceOnCandidate), new Knight(attackDestinationCoordinate, this.pieceAlliance, false)));
             }
-            else if (currentCandidateOffset == 9 &&
-                    !(BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack() ||
-                            BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite())) {
-                if(board.getTile(candidateDestinationCoordinate).isTileOccupied()){
-                    final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                    	if(this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                            legalMoves.add(new PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate,
-                                            pieceOnCandidate), new Rook(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                            legalMoves.add(new PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate,
-                                            pieceOnCandidate), new Queen(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                            legalMoves.add(new PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate,
-                                            pieceOnCandidate), new Bishop(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                            legalMoves.add(new PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate,
-                                            pieceOnCandidate), new Knight(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                        }
-                        else {
-                            legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                        }
-                    }
-                } else if(board.getEnPassantPawn() != null) {
-                    if(board.getEnPassantPawn().getPiecePosition() == (this.piecePosition - (this.pieceAlliance.getOppositeDirection()))) {
-                        final Piece pieceOnCandidate = board.getEnPassantPawn();
-                        if(this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                            legalMoves.add(new PawnEnPassantAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                        }
-                    }
-                }
+            else {
+                legalMoves.add(new PawnAttackMove(board, this, attackDestinationCoordinate, pieceOnCandidate));
             }
         }
+        //bắt tốt qua đường
+        final int enPassantSquare = bitBoard.getEnPassantSquare();
+        if (enPassantSquare != BitBoard.NO_SQUARE && BitboardUtils.isSet(attacks, enPassantSquare) &&
+                board.getEnPassantPawn().getPieceAlliance() != this.pieceAlliance) {
+            legalMoves.add(new PawnEnPassantAttackMove(board, this, enPassantSquare, board.getEnPassantPawn()));
+        }
         return legalMoves;
     }
 
@@ -2,7 +2,7 @@ package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.BitboardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
 
@@ -11,7 +11,6 @@ import java.util.Collection;
 import java.util.List;
 
 public class Queen extends Piece{
-    private  final static int[] CANDIDATE_MOVE_VECTOR_COORDINATES={-9,-8,-7,-1,1,7,8,9};
     public Queen(int piecePosition, Alliance pieceAlliance) {
         super(PieceType.QUEEN, piecePosition, pieceAlliance, true);
     }
@@ -24,32 +23,17 @@ public class Queen extends Piece{
     public Collection<Move> calculateLegalMove(final Board board) {
 
         final List<Move> legalMoves = new ArrayList<>();
-
-        for(final int candidateCoordinateOffset: CANDIDATE_MOVE_VECTOR_COORDINATES){
-            int candidateDestinationCoordinate = this.piecePosition;
-            while(true) {
-                // Khi di den cac diem gioi han thi dung lai
-                if(isFirstColumnExclusion(candidateDestinationCoordinate,candidateCoordinateOffset) ||
-                        isEightColumnExclusion(candidateDestinationCoordinate,candidateCoordinateOffset)){
-                    break;
-                }
-                candidateDestinationCoordinate += candidateCoordinateOffset;
-
-                if(!BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) break;
-
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-                    if (!candidateDestinationTile.isTileOccupied()) {
-                        legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
-                    } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                        if (this.pieceAlliance != pieceAlliance) {
-                            legalMoves.add(new Move.MajorAttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                        }
-                        break;
-                    }
-                }
+        // Tra bang magic lay het cac o tren cac tia (tinh ca o bi chan), bo di cac o co quan cung mau
+        long candidateDestinations = BitboardUtils.queenAttacks(this.piecePosition, board.getBitBoard().getOccupancy()) &
+                ~board.getBitBoard().getOccupancy(this.pieceAlliance);
+        while (candidateDestinations != 0) {
+            final int candidateDestinationCoordinate = Long.numberOfTrailingZeros(candidateDestinations);
+            candidateDestinations &= candidateDestinations - 1;
+            final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
+            if (!candidateDestinationTile.isTileOccupied()) {
+                legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
+            } else {
+                legalMoves.add(new Move.MajorAttackMove(board, this, candidateDestinationCoordinate, candidateDestinationTile.getPiece()));
             }
         }
         return legalMoves;
@@ -57,18 +41,10 @@ public class Queen extends Piece{
 
     @Override
     public Queen movePiece(Move move) {
-        return new Queen(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return new Queen(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
     }
 
     public String toString() {
         return PieceType.QUEEN.toString();
     }
-    // Neu la cot 1 va buoc di chuyen la ( di cheo len tren ve phia ben trai || di chuyen xuong duoi ve phia ben trai || di sang trai)
-    private static boolean isFirstColumnExclusion(final int currentPosition , final int candidateOffset){
-        return BoardUtils.FIRST_COLUMN[currentPosition] && ((candidateOffset==-1) || (candidateOffset == -9) || (candidateOffset == 7));
-    }
-    // Neu la cot 8 va buoc di chuyen la (di chuyen len tren ve phia ben phai || di chuyen xuong duoi ve phia ben phai || di sang phai)
-    private static boolean isEightColumnExclusion(final int currentPosition , final int candidateOffset){
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && ((candidateOffset==1) || (candidateOffset == -7) || (candidateOffset == 9));
-    }
 }
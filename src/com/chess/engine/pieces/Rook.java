@@ -2,7 +2,7 @@ package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.BitboardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
 
@@ -11,9 +11,6 @@ import java.util.Collection;
 import java.util.List;
 
 public class Rook extends Piece{
-    // Cac buoc di chuyen thang sang trai phai len xuong
-    private final static int[] CANDIDATE_MOVE_VECTOR_COORDINATES={-8,-1,1,8};
-
     public Rook(final int piecePosition, Alliance pieceAlliance) {
         super(PieceType.ROOK, piecePosition, pieceAlliance, true);
     }
@@ -26,33 +23,17 @@ public class Rook extends Piece{
     public Collection<Move> calculateLegalMove(final Board board) {
 
         final List<Move> legalMoves = new ArrayList<>();
-
-        for(final int candidateCoordinateOffset: CANDIDATE_MOVE_VECTOR_COORDINATES){
-
-            int candidateDestinationCoordinate = this.piecePosition;
-
-            while(BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                // Di den diem gioi han thi dung lai
-                if(isFirstColumnExclusion(candidateDestinationCoordinate,candidateCoordinateOffset) ||
-                        isEightColumnExclusion(candidateDestinationCoordinate,candidateCoordinateOffset)){
-                    break;
-                }
-
-                candidateDestinationCoordinate += candidateCoordinateOffset;
-
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-                    if (!candidateDestinationTile.isTileOccupied()) {
-                        legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
-                    } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                        if (this.pieceAlliance != pieceAlliance) {
-                            legalMoves.add(new Move.MajorAttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                        }
-                        break;
-                    }
-                }
+        // Tra bang magic lay het cac o tren cac tia (tinh ca o bi chan), bo di cac o co quan cung mau
+        long candidateDestinations = BitboardUtils.rookAttacks(this.piecePosition, board.getBitBoard().getOccupancy()) &
+                ~board.getBitBoard().getOccupancy(this.pieceAlliance);
+        while (candidateDestinations != 0) {
+            final int candidateDestinationCoordinate = Long.numberOfTrailingZeros(candidateDestinations);
+            candidateDestinations &= candidateDestinations - 1;
+            final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
+            if (!candidateDestinationTile.isTileOccupied()) {
+                legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
+            } else {
+                legalMoves.add(new Move.MajorAttackMove(board, this, candidateDestinationCoordinate, candidateDestinationTile.getPiece()));
             }
         }
         return legalMoves;
@@ -66,12 +47,4 @@ public class Rook extends Piece{
     public String toString() {
         return PieceType.ROOK.toString();
     }
-    // Neu la cot 1 va dang di chuyen sang trai
-    private static boolean isFirstColumnExclusion(final int currentPosition , final int candidateOffset){
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -1 );
-    }
-    // Neu la cot 8 va dang di chuyen sang phai
-    private static boolean isEightColumnExclusion(final int currentPosition , final int candidateOffset){
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidateOffset == 1);
-    }
 }
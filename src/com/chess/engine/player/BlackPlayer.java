@@ -12,10 +12,8 @@ import java.util.List;
 import java.util.ArrayList;
 
 public class BlackPlayer extends Player{
-    public BlackPlayer(final Board board,
-                       final Collection<Move> blackStandardLegalMove,
-                       final Collection<Move> whiteStandardLegalMove) {
-        super(board, blackStandardLegalMove, whiteStandardLegalMove);
+    public BlackPlayer(final Board board) {
+        super(board);
     }
 
     @Override
@@ -34,15 +32,15 @@ public class BlackPlayer extends Player{
     }
 
     @Override
-    protected Collection<Move>  calculateKingCastles(final Collection<Move> playerLegals, final Collection<Move> opponentsLegals) {
+    protected Collection<Move> calculateKingCastles() {
         final List<Move> blackKingCastles = new ArrayList<>();
         if(this.playerKing.isFirstMove()) {
             if(!this.board.getTile(5).isTileOccupied() && !this.board.getTile(6).isTileOccupied()) {
                 final Tile rookTile = this.board.getTile(7);
                 if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-                    if(Player.calculateAttacksOnTile(5, opponentsLegals).isEmpty() && 
-                       Player.calculateAttacksOnTile(6, opponentsLegals).isEmpty() &&
-                            Player.calculateAttacksOnTile(4, opponentsLegals).isEmpty() &&
+                    if(!isTileAttacked(5) && 
+                       !isTileAttacked(6) &&
+                            !isTileAttacked(4) &&
                             rookTile.getPiece().getPieceType().isRook()) {
                         blackKingCastles.add(new Move.KingSideCastleMove(this.board, this.playerKing, 6, (Rook)rookTile.getPiece(), rookTile.getTileCoordinate(), 5));
                     }
@@ -51,9 +49,9 @@ public class BlackPlayer extends Player{
             if(!this.board.getTile(1).isTileOccupied() && !this.board.getTile(2).isTileOccupied() && !this.board.getTile(3).isTileOccupied()) {
                 final Tile rookTile = this.board.getTile(0);
                 if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()
-                && Player.calculateAttacksOnTile(2,opponentsLegals). isEmpty() &&
-                Player.calculateAttacksOnTile(3,opponentsLegals).isEmpty() &&
-                        Player.calculateAttacksOnTile(4, opponentsLegals).isEmpty() &&
+                && !isTileAttacked(2) &&
+                !isTileAttacked(3) &&
+                        !isTileAttacked(4) &&
                 rookTile.getPiece().getPieceType().isRook()) {
                     blackKingCastles.add(new Move.QueenSideCastleMove(this.board, this.playerKing, 2, (Rook)rookTile.getPiece(), rookTile.getTileCoordinate(), 3));
                 }
@@ -15,29 +15,18 @@ public abstract class Player {
 
     protected final Board board;
     protected final King playerKing;
-    protected final Collection<Move> legalMoves;
+    // Chi tinh khi duoc hoi lan dau roi giu lai: phan lon Board tao ra trong luc di quan khong can den
+    private Collection<Move> legalMoves;
+    private Boolean isInCheck;
 
-    private final boolean isInCheck;
-
-    Player(final Board board,final Collection<Move> myLegalMoves, final Collection<Move> opponentMoves){
+    Player(final Board board){
         this.board = board;
         this.playerKing = establishKing();
-        // this.legalMoves = Iterables.concat(myLegalMoves,calculateKingCastles(myLegalMoves, opponentMoves));
-        this.legalMoves = myLegalMoves;
-        this.legalMoves.addAll(calculateKingCastles(myLegalMoves, opponentMoves));
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
     }
 
-    protected static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move> opponentMoves) {
-    //returns a collection of opponent's moves which attack the piece at {piecePosition}
-        final List<Move> attackMoves = new ArrayList<>();
-        for (final Move move: opponentMoves){
-            if (piecePosition == move.getDestinationCoordinate()){
-                attackMoves.add(move);
-            }
-        }
-
-        return attackMoves;
+    // O co bi quan doi thu tan cong khong, tra nguoc tu o do tren BitBoard thay vi duyet danh sach nuoc di cua doi thu
+    protected boolean isTileAttacked(final int tileCoordinate) {
+        return this.board.getBitBoard().isSquareAttacked(tileCoordinate, getAlliance().opposite());
     }
 
     private King establishKing() {
@@ -54,23 +43,31 @@ public abstract class Player {
     }
 
     public Collection<Move> getLegalMoves(){
+        if (this.legalMoves == null) {
+            final List<Move> legalMoves = new ArrayList<>(this.board.getStandardLegalMoves(getAlliance()));
+            legalMoves.addAll(calculateKingCastles());
+            this.legalMoves = legalMoves;
+        }
         return this.legalMoves;
     }
 
     public boolean isMoveLegal(final Move move){
-        return this.legalMoves.contains(move);
+        return getLegalMoves().contains(move);
     }
 
     public boolean isInCheck(){
+        if (this.isInCheck == null) {
+            this.isInCheck = isTileAttacked(this.playerKing.getPiecePosition());
+        }
         return this.isInCheck;
     }
 
     public boolean isInCheckmate(){
-        return this.isInCheck && !hasEscapeMove();
+        return isInCheck() && !hasEscapeMove();
     }
 
     public boolean isInStalemate(){ //hòa cờ
-        return !this.isInCheck && !hasEscapeMove();
+        return !isInCheck() && !hasEscapeMove();
         //Khi 1 hình cờ lặp lại 3 lần (2 bên đi cùng 1 nước 3 lần)
         //- Khi 2 bên không đủ quân để chiếu hết:
         //		+ Vua vs Vua
@@ -80,19 +77,14 @@ public abstract class Player {
         //	(Trong hàm isStalemate() cần thêm hàm truy cập vào moveLog để đọc lịch sử nước đi)
     }
     public boolean isKingSideCastleCapable() {
-        return !this.isInCheck && this.playerKing.isKingSideCastleCapable();
+        return !isInCheck() && this.playerKing.isKingSideCastleCapable();
     }
     public boolean isQueenSideCastleCapable() {
-        return !this.isInCheck && this.playerKing.isQueenSideCastleCapable();
+        return !isInCheck() && this.playerKing.isQueenSideCastleCapable();
     }
+    // Sinh nuoc hop le tren BitBoard (da tinh quan bi ghim, quan dang chieu), khong phai tao Board con cho tung nuoc
     private boolean hasEscapeMove() {
-        for (final Move move: this.legalMoves){
-            final MoveTransition transition = makeMove(move);
-            if (transition.getMoveStatus().isDone()){
-                return true;
-            }
-        }
-        return false;
+        return this.board.getBitBoard().hasLegalMove(getAlliance());
     }
 
     //TODO: implement these below methods
@@ -110,12 +102,8 @@ public abstract class Player {
 
         //else declare a transition board which is a new board after move
         final Board transitionBoard = move.execute();
-        //list the moves lead current player's king to be attacked
-        final Collection<Move> kingAttacks
-                = calculateAttacksOnTile(transitionBoard.currentPlayer().getOpponent().getPlayerKing().getPiecePosition(),
-                transitionBoard.currentPlayer().getLegalMoves());
-        //if there is any move, return status LEAVES_PLAYER_IN_CHECK
-        if (!kingAttacks.isEmpty()){
+        //if current player's king is attacked on the new board, return status LEAVES_PLAYER_IN_CHECK
+        if (transitionBoard.currentPlayer().getOpponent().isInCheck()){
             return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
         }
         //nothing wrong happened then makeMove
@@ -127,5 +115,5 @@ public abstract class Player {
     public abstract Collection<Piece> getActivePieces();
     public abstract Alliance getAlliance();
     public abstract Player getOpponent();
-    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals, Collection<Move> OpponentLegals);
+    protected abstract Collection<Move> calculateKingCastles();
 }
@@ -12,10 +12,8 @@ import java.util.List;
 import java.util.ArrayList;
 
 public class WhitePlayer extends Player{
-    public WhitePlayer(final Board board,
-                       final Collection<Move> whiteStandardLegalMove,
-                       final Collection<Move> blackStandardLegalMove) {
-        super(board, whiteStandardLegalMove, blackStandardLegalMove);
+    public WhitePlayer(final Board board) {
+        super(board);
     }
 
     @Override
@@ -34,15 +32,15 @@ public class WhitePlayer extends Player{
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(Collection<Move> playerLegals, Collection<Move> opponentsLegals) {
+    protected Collection<Move> calculateKingCastles() {
         final List<Move> whiteKingCastles = new ArrayList<>();
         if(this.playerKing.isFirstMove()) {
             if(!this.board.getTile(61).isTileOccupied() && !this.board.getTile(62).isTileOccupied()) {
                 final Tile rookTile = this.board.getTile(63);
                 if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-                    if(Player.calculateAttacksOnTile(61, opponentsLegals).isEmpty() && 
-                       Player.calculateAttacksOnTile(62, opponentsLegals).isEmpty() &&
-                            Player.calculateAttacksOnTile(60, opponentsLegals).isEmpty() &&
+                    if(!isTileAttacked(61) && 
+                       !isTileAttacked(62) &&
+                            !isTileAttacked(60) &&
                        rookTile.getPiece().getPieceType().isRook()) {
                         whiteKingCastles.add(new Move.KingSideCastleMove(this.board, this.playerKing, 62, (Rook)rookTile.getPiece(), rookTile.getTileCoordinate(), 61));
                     }
@@ -51,9 +49,9 @@ public class WhitePlayer extends Player{
             if(!this.board.getTile(59).isTileOccupied() && !this.board.getTile(58).isTileOccupied() && !this.board.getTile(57).isTileOccupied()) {
                 final Tile rookTile = this.board.getTile(56);
                 if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
-                Player.calculateAttacksOnTile(58,opponentsLegals).isEmpty() &&
-                Player.calculateAttacksOnTile(59,opponentsLegals).isEmpty()&&
-                        Player.calculateAttacksOnTile(60, opponentsLegals).isEmpty() &&
+                !isTileAttacked(58) &&
+                !isTileAttacked(59)&&
+                        !isTileAttacked(60) &&
                 rookTile.getPiece().getPieceType().isRook()){
                     whiteKingCastles.add(new Move.QueenSideCastleMove(this.board, this.playerKing, 58, (Rook)rookTile.getPiece(), rookTile.getTileCoordinate(), 59));
                 }
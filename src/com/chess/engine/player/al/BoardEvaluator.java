@@ -1,7 +1,9 @@
 package com.chess.engine.player.al;
 
+import com.chess.engine.board.BitBoard;
 import com.chess.engine.board.Board;
 
 public interface BoardEvaluator {
     int evaluate(Board board, int depth);
+    int evaluate(BitBoard bitBoard, int depth);
 }
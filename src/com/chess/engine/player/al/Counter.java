@@ -8,5 +8,9 @@ public class Counter {
     public static void increase() {
         count++;
     }
+    // Danh gia phu thuoc so nuoc da di (khai cuoc, nhap thanh): cac lan tim can so sanh voi nhau phai bat dau cung so
+    public static void reset() {
+        count = 1;
+    }
 
 }
@@ -0,0 +1,21 @@
+package com.chess.engine.player.al;
+
+import com.chess.engine.board.BitBoard;
+
+public interface ExtensionPolicy {
+    // Quyet dinh nuoc nao duoc tim sau them (keo dai) trong MiniMax. MiniMax giu ngan sach tren moi nhanh va tu chay
+    // tim kiem kiem tra cho singular extension, policy chi dat dieu kien va cac nguong.
+
+    // So tang keo dai cho nuoc vua di (bitBoard da make nuoc nay); previousMove la nuoc truoc do cua doi thu,
+    // PackedMove.NULL_MOVE neu khong biet
+    int extension(BitBoard bitBoard, int move, int previousMove, boolean givesCheck);
+
+    // Co kiem tra nuoc trong bang chuyen vi co "doc nhat" (singular) khong: do sau cua nut va do sau cua muc trong bang
+    boolean isSingularCandidate(int depth, int tableDepth);
+
+    // Moi nuoc khac phai kem diem trong bang it nhat khoang nay thi nuoc trong bang moi la doc nhat
+    int singularMargin(int depth);
+
+    // Tong so tang keo dai toi da tren mot nhanh tu goc, theo do sau danh nghia cua vong lap
+    int maxPathExtensions(int rootDepth);
+}
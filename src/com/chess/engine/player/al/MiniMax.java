@@ -1,28 +1,135 @@
 package com.chess.engine.player.al;
 
+import com.chess.engine.board.BitBoard;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
 import com.chess.engine.opening.Node;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.MoveTransition;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-
-import static com.chess.engine.player.al.StandardBoardEvaluator.isMidGame;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MiniMax implements MoveStrategy{
+    private static final int MAX_PLY = 64;
+    private static final int NODES_BETWEEN_LIMIT_CHECKS = 1024;
+    static final int INFINITY = 1_000_000_000;   // lon hon moi diem danh gia, ke ca diem chieu het
+    private static final int DRAW_SCORE = 0;
+    // Aspiration window: nua con tot theo thang diem cua StandardBoardEvaluator, tu do sau nay tro di
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+    private static final int ASPIRATION_WINDOW = Piece.PieceType.PAWN.mgPieceValue * StandardBoardEvaluator.PIECE_WEIGHT / 2;
+    private static final int DEFAULT_TABLE_SIZE_MB = 32;
+    // Young Brothers Wait: chi chia nut con du sau, nut nho thi chi phi tao luong con lon hon loi
+    private static final int MIN_SPLIT_DEPTH = 3;
+    // Delta pruning: nuoc an ma cong ca gia tri quan bi an va khoang nay van khong toi alpha thi bo
+    private static final int DELTA_MARGIN = 2 * Piece.PieceType.PAWN.mgPieceValue * StandardBoardEvaluator.PIECE_WEIGHT;
+    // Null move pruning: nhuong luot ma doi thu van khong vuot duoc beta (tim nong hon R tang) thi cat luon
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int NULL_MOVE_REDUCTION = 2;
+    private static final int DEEP_NULL_MOVE_REDUCTION = 3;       // tu do sau DEEP_NULL_MOVE_DEPTH
+    private static final int DEEP_NULL_MOVE_DEPTH = 7;
+    // Late move reductions: so tang giam theo do sau con lai va so thu tu nuoc, ~ ln(depth) * ln(moveNumber) / 2
+    private static final int[][] LMR_REDUCTIONS = new int[MAX_PLY][MAX_PLY];
+
+    static {
+        for (int depth = 1; depth < MAX_PLY; depth++) {
+            for (int moveNumber = 1; moveNumber < MAX_PLY; moveNumber++) {
+                LMR_REDUCTIONS[depth][moveNumber] = (int) (0.5 + Math.log(depth) * Math.log(moveNumber) / 2);
+            }
+        }
+    }
+    // Dung chung giua cac nuoc di trong van (Table tao MiniMax moi moi nuoc)
+    private static final TranspositionTable GAME_TABLE = new TranspositionTable(DEFAULT_TABLE_SIZE_MB);
+    // Lazy SMP: luong phu thu i bo qua mot so do sau de cac luong khong cung tim mot do sau mot luc
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
     private final BoardEvaluator boardEvaluator;
-    private final int searchDepth;
+    private final TranspositionTable transpositionTable;
+    private final SearchLimits searchLimits;
+    private final int threads;
+    private final ParallelSearch parallelSearch;
+    private final SearchParameters searchParameters;
+    private final SearchStatistics searchStatistics;
+    private final AtomicBoolean stopSignal;   // luong chinh bao cac luong phu dung
     int counting;
-    boolean quietBefore;
+    private MoveList[] moveLists;
+    private MovePicker[] movePickers;
+    private final int[][] pvTable;
+    private final int[] pvLength;
+    private int[] principalVariation;
+    private int score;                 // diem cua vong lap sau nhat da tim xong (trang duong)
+    private final SearchHistory searchHistory;
+    private TimeManager timeManager;
+    private long nodes;
+    private boolean abortAllowed;      // vong lap dau tien luon chay het de co nuoc di
+    private boolean searchAborted;
+    private int rootDepth;             // do sau danh nghia cua vong lap hien tai, cho ngan sach keo dai
+    private int pathExtensions;        // so tang da keo dai tren nhanh tu goc den nut hien tai
+    private long noiseSeed;            // seed cua nhieu danh gia trong lan tim nay, luong con/luong phu dung chung
+    private ForkJoinPool pool;         // dung chung giua cac luong khi chia cay (ROOT_SPLIT, YOUNG_BROTHERS_WAIT)
+    private SplitPoint splitPoint;     // nut chia ma MiniMax nay (luong con) dang tim ho, null o luong chinh
+    private long helperNodes;          // so nut cua cac luong phu Lazy SMP trong lan tim gan nhat
 
     public MiniMax(int searchDepth){
+        this(SearchLimits.depth(searchDepth));
+    }
+
+    public MiniMax(final SearchLimits searchLimits){
+        this(searchLimits, 1);
+    }
+
+    public MiniMax(final SearchLimits searchLimits, final int threads){
+        this(searchLimits, threads, ParallelSearch.LAZY_SMP);
+    }
+
+    public MiniMax(final SearchLimits searchLimits, final int threads, final ParallelSearch parallelSearch){
+        this(searchLimits, threads, parallelSearch, SearchParameters.DEFAULT);
+    }
+
+    public MiniMax(final SearchLimits searchLimits, final int threads, final ParallelSearch parallelSearch,
+                   final SearchParameters searchParameters){
+        this(searchLimits, threads, parallelSearch, searchParameters, GAME_TABLE, new AtomicBoolean());
+    }
+
+    public MiniMax(final SearchLimits searchLimits, final int threads, final ParallelSearch parallelSearch,
+                   final TranspositionTable transpositionTable){
+        this(searchLimits, threads, parallelSearch, SearchParameters.DEFAULT, transpositionTable);
+    }
+
+    public MiniMax(final SearchLimits searchLimits, final int threads, final ParallelSearch parallelSearch,
+                   final SearchParameters searchParameters, final TranspositionTable transpositionTable){
+        this(searchLimits, threads, parallelSearch, searchParameters, transpositionTable, new AtomicBoolean());
+    }
+
+    private MiniMax(final SearchLimits searchLimits, final int threads, final ParallelSearch parallelSearch,
+                    final SearchParameters searchParameters, final TranspositionTable transpositionTable,
+                    final AtomicBoolean stopSignal){
         this.boardEvaluator= new StandardBoardEvaluator();
-        this.searchDepth = searchDepth;
+        this.transpositionTable = transpositionTable;
+        this.searchLimits = searchLimits;
+        this.threads = Math.max(1, threads);
+        this.parallelSearch = parallelSearch;
+        this.searchParameters = searchParameters;
+        this.searchStatistics = new SearchStatistics();
+        this.stopSignal = stopSignal;
         this.counting = Counter.count;
-        this.quietBefore  = false;
+        this.moveLists = new MoveList[MAX_PLY];
+        this.movePickers = new MovePicker[MAX_PLY];
+        this.pvTable = new int[MAX_PLY][MAX_PLY];
+        this.pvLength = new int[MAX_PLY];
+        this.principalVariation = new int[0];
+        this.searchHistory = new SearchHistory(MAX_PLY);
     }
 
 
@@ -31,12 +138,28 @@ public class MiniMax implements MoveStrategy{
         return "MiniMax";
     }
 
+    // Tong so nut cua lan tim gan nhat, ke ca cac luong con/luong phu
+    public long getNodes(){
+        return this.nodes + this.helperNodes;
+    }
+
+    // Diem cua nuoc tra ve trong lan tim gan nhat, tinh cho ben trang
+    public int getScore(){
+        return this.score;
+    }
+
+    // Thong ke cat tia/giam do sau cua lan tim gan nhat, ke ca cac luong con/luong phu
+    public SearchStatistics getSearchStatistics(){
+        return this.searchStatistics;
+    }
+
     @Override
     public Move execute(Board board) {
         final long startTime = System.currentTimeMillis();
-        System.out.println(board.currentPlayer()+ " THINKING with depth = " + this.searchDepth);
+        System.out.println(board.currentPlayer()+ " THINKING with " + this.searchLimits);
 //        int numMoves = board.currentPlayer().getLegalMoves().size();
         Counter.increase();
+        this.transpositionTable.newSearch();
         Move bestMove = bestMove(board);
         final long executionTime = System.currentTimeMillis() - startTime;
         System.out.println(board.currentPlayer()+ " MOVE with time = " + executionTime);
@@ -60,7 +183,6 @@ public class MiniMax implements MoveStrategy{
 
     private Move bestMove(Board board) {
         Move oneBestMove;
-        Collection<Move> bestMoves;
         while (counting <= 14 && Semaphores.semaphore) {
 //            double ratio = Math.random() *10;
 //            if (0 < ratio && ratio < 7) {
@@ -78,139 +200,1128 @@ public class MiniMax implements MoveStrategy{
                 return moveFromOpeningTree;
             }
         }
-        bestMoves = abSearch(board);
-        oneBestMove = random(bestMoves);
+        oneBestMove = abSearch(board);
 //        System.out.println("chosen move:" + oneBestMove.toString());
         return oneBestMove;
     }
 
-    private Collection<Move> abSearch(Board board) {
-        int currentValue;
-        int highestSeenValue = Integer.MIN_VALUE;
-        int lowestSeenValue = Integer.MAX_VALUE;
-        Collection<Move> bestMoves = new ArrayList<>();
-        for(final Move move : board.currentPlayer().getLegalMoves()){
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if(moveTransition.getMoveStatus().isDone()){
-//                System.out.println("Move: " + move.toString());
-                currentValue = board.currentPlayer().getAlliance().isWhite() ?
-                        min(moveTransition.getTransitionBoard(),this.searchDepth - 1, Integer.MIN_VALUE, Integer.MAX_VALUE) :
-                        max(moveTransition.getTransitionBoard(),this.searchDepth - 1, Integer.MIN_VALUE, Integer.MAX_VALUE);
-                if ( board.currentPlayer().getAlliance().isWhite() && currentValue > highestSeenValue){
-                    highestSeenValue = currentValue;
-                    bestMoves.clear();
-                    bestMoves.add(move);
+    // Iterative deepening: tim o do sau 1, 2, 3... cho den khi het gio/het do sau. Moi vong xong thi nuoc tot nhat
+    // duoc dua len dau, con bien chinh (PV) nam trong bang chuyen vi nen vong sau di nhanh hon.
+    private Move abSearch(Board board) {
+        this.timeManager = new TimeManager(this.searchLimits);
+        this.nodes = 0;
+        this.helperNodes = 0;
+        this.searchStatistics.reset();
+        this.searchAborted = false;
+        this.searchHistory.newSearch();
+        this.principalVariation = new int[0];
+        this.score = 0;
+        this.stopSignal.set(false);
+        this.noiseSeed = this.searchParameters.hasRandomSeed() ? this.searchParameters.getRandomSeed() :
+                ThreadLocalRandom.current().nextLong();
+        final boolean isWhite = board.currentPlayer().getAlliance().isWhite();
+        // Tim kiem tren mot ban sao BitBoard, moi nut chi make/unmake thay vi tao Board moi
+        final BitBoard bitBoard = new BitBoard(board.getBitBoard());
+        final List<Move> rootMoves = calculateRootMoves(board, bitBoard);
+        final List<MiniMax> helpers = new ArrayList<>();
+        final List<Thread> helperThreads = new ArrayList<>();
+        final boolean rootSplit = this.parallelSearch == ParallelSearch.ROOT_SPLIT && this.threads > 1;
+        final boolean treeSplit = this.parallelSearch == ParallelSearch.YOUNG_BROTHERS_WAIT && this.threads > 1;
+        this.pool = rootSplit || treeSplit ? new ForkJoinPool(this.threads) : null;
+        if (!rootMoves.isEmpty() && this.parallelSearch == ParallelSearch.LAZY_SMP) {
+            startHelpers(bitBoard, rootMoves, helpers, helperThreads);
+        }
+        Move previousBestMove = null;
+        int previousValue = 0;
+        int stableIterations = 0;
+        for (int depth = 1; this.timeManager.canStartIteration(depth, stableIterations, this.nodes); depth++) {
+            this.abortAllowed = depth > 1;
+            this.rootDepth = depth;
+            final RootResult result = aspirationSearch(bitBoard, rootMoves, depth, isWhite, previousValue, rootSplit);
+            if (this.searchAborted) {
+                break;  // vong lap chua xong thi bo, dung ket qua cua vong truoc
+            }
+            final int bestValue = result.bestValue;
+            previousValue = bestValue;
+            this.score = bestValue;
+            this.principalVariation = result.pv;
+            stableIterations = result.bestMove.equals(previousBestMove) ? stableIterations + 1 : 0;
+            previousBestMove = result.bestMove;
+            rootMoves.remove(previousBestMove);
+            rootMoves.add(0, previousBestMove);
+            this.transpositionTable.store(bitBoard.getZobristKey(), PackedMove.fromMove(previousBestMove),
+                    bestValue, depth, TranspositionTable.EXACT);
+            if (this.searchParameters.isVerbose()) {
+                System.out.println("depth " + depth + " score " + bestValue + " nodes " + this.nodes + " time " +
+                        this.timeManager.elapsed() + " pv " + getPrincipalVariation());
+            }
+        }
+        stopHelpers(helpers, helperThreads);
+        if (this.pool != null) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+        if (this.searchParameters.isVerbose()) {
+            System.out.println("search " + this.searchStatistics);
+        }
+        return previousBestMove;
+    }
+
+    private static final class RootResult {
+        private final Move bestMove;
+        private final int bestValue;
+        private final int[] pv;               // bien chinh bat dau bang bestMove
+
+        private RootResult(final Move bestMove, final int bestValue, final int[] pv) {
+            this.bestMove = bestMove;
+            this.bestValue = bestValue;
+            this.pv = pv;
+        }
+    }
+
+    // Aspiration window: tim voi cua so hep quanh diem cua vong truoc; diem roi ra ngoai cua so thi chi biet mot can,
+    // mo rong phia bi truot (moi lan gap doi) roi tim lai
+    private RootResult aspirationSearch(final BitBoard bitBoard, final List<Move> rootMoves, final int depth,
+                                        final boolean isWhite, final int previousValue, final boolean rootSplit) {
+        int delta = ASPIRATION_WINDOW;
+        int alpha = -INFINITY;
+        int beta = INFINITY;
+        if (depth >= ASPIRATION_MIN_DEPTH) {
+            alpha = Math.max(-INFINITY, previousValue - delta);
+            beta = Math.min(INFINITY, previousValue + delta);
+        }
+        while (true) {
+            final RootResult result = rootSplit && rootMoves.size() > 1 ?
+                    searchRootSplit(this.pool, bitBoard, rootMoves, depth, isWhite, alpha, beta) :
+                    searchRoot(bitBoard, rootMoves, depth, isWhite, alpha, beta);
+            if (this.searchAborted) {
+                return null;
+            }
+            if (result.bestValue <= alpha && alpha > -INFINITY) {
+                alpha = Math.max(-INFINITY, result.bestValue - delta);
+            } else if (result.bestValue >= beta && beta < INFINITY) {
+                beta = Math.min(INFINITY, result.bestValue + delta);
+            } else {
+                return result;
+            }
+            delta *= 2;
+        }
+    }
+
+    // PVS o goc: nuoc dau tien tim voi ca cua so; cac nuoc sau chi can chung minh khong hon nuoc tot nhat nen thu bang
+    // cua so rong 1 ngay tai diem tot nhat, chi tim lai voi cua so (diem tot nhat, beta) khi nuoc do hon that su.
+    // Nuoc bang diem khong duoc tim lai; su da dang do nhieu danh gia (SearchParameters.evaluationNoise) lo.
+    private RootResult searchRoot(final BitBoard bitBoard, final List<Move> rootMoves, final int depth,
+                                  final boolean isWhite, final int alpha, final int beta) {
+        int bestValue = isWhite ? -INFINITY : INFINITY;
+        int[] pv = new int[0];
+        Move bestMove = null;
+        for (final Move move : rootMoves) {
+            final int packedMove = PackedMove.fromMove(move);
+            bitBoard.makeMove(packedMove);
+            int currentValue;
+            if (bestMove == null) {
+                currentValue = isWhite ? min(bitBoard, depth - 1, alpha, beta) : max(bitBoard, depth - 1, alpha, beta);
+            } else if (isWhite) {
+                final int lower = Math.max(alpha, bestValue);
+                currentValue = min(bitBoard, depth - 1, lower, lower + 1);
+                if (currentValue > lower && !this.searchAborted) {
+                    currentValue = min(bitBoard, depth - 1, lower, beta);
                 }
-                else if (board.currentPlayer().getAlliance().isWhite() && currentValue == highestSeenValue) {
-                    bestMoves.add(move);
+            } else {
+                final int upper = Math.min(beta, bestValue);
+                currentValue = max(bitBoard, depth - 1, upper - 1, upper);
+                if (currentValue < upper && !this.searchAborted) {
+                    currentValue = max(bitBoard, depth - 1, alpha, upper);
                 }
-                else if (board.currentPlayer().getAlliance().isBlack()&& currentValue < lowestSeenValue){
-                    lowestSeenValue = currentValue;
-                    bestMoves.clear();
-                    bestMoves.add(move);
-                } else if (board.currentPlayer().getAlliance().isBlack() && currentValue == lowestSeenValue) {
-                    bestMoves.add(move);
+            }
+            bitBoard.unmakeMove();
+            if (this.searchAborted) {
+                return null;
+            }
+            if (bestMove == null || (isWhite ? currentValue > bestValue : currentValue < bestValue)) {
+                bestValue = currentValue;
+                bestMove = move;
+                pv = prepend(packedMove, pvLine(1));
+            }
+            if (isWhite ? bestValue >= beta : bestValue <= alpha) {
+                break;  // vuot cua so aspiration, aspirationSearch se tim lai
+            }
+        }
+        return new RootResult(bestMove, bestValue, pv);
+    }
+
+    // Nuoc dau tien tim tuan tu voi cua so day du; cac nuoc con lai tim song song, moi nuoc bang cua so rong 1 tai diem
+    // nuoc dau tien, giong cua so searchRoot dung khi chua nuoc nao hon nuoc dau. Cua so khong phu thuoc luong nao xong
+    // truoc nen nuoc nao that bai thi searchRoot cung bo; cac nuoc vuot duoc searchRoot tim lai tuan tu theo thu tu goc
+    // (nuoc dau tien trung bang chuyen vi) de chon nhu tim 1 luong. Bang chuyen vi dung chung van duoc cac luong ghi theo
+    // thu tu bat ky, va moi luong co killer/history rieng, nen ket qua khong chac trung tung nut voi tim 1 luong.
+    private RootResult searchRootSplit(final ForkJoinPool pool, final BitBoard bitBoard, final List<Move> rootMoves,
+                                       final int depth, final boolean isWhite, final int alpha, final int beta) {
+        bitBoard.makeMove(PackedMove.fromMove(rootMoves.get(0)));
+        final int firstValue = isWhite ? min(bitBoard, depth - 1, alpha, beta) : max(bitBoard, depth - 1, alpha, beta);
+        final int[] firstLine = pvLine(1);
+        bitBoard.unmakeMove();
+        if (this.searchAborted) {
+            return null;
+        }
+        if (isWhite ? firstValue >= beta : firstValue <= alpha) {
+            return new RootResult(rootMoves.get(0), firstValue,
+                    prepend(PackedMove.fromMove(rootMoves.get(0)), firstLine));
+        }
+        final int bound = isWhite ? Math.max(alpha, firstValue) : Math.min(beta, firstValue);
+        final List<RootMoveTask> tasks = new ArrayList<>();
+        for (int i = 1; i < rootMoves.size(); i++) {
+            final BitBoard taskBoard = new BitBoard(bitBoard);
+            taskBoard.makeMove(PackedMove.fromMove(rootMoves.get(i)));
+            tasks.add(new RootMoveTask(taskBoard, depth, isWhite, bound));
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+        final List<Move> candidates = new ArrayList<>();
+        candidates.add(rootMoves.get(0));
+        for (int i = 1; i < rootMoves.size(); i++) {
+            final RootMoveTask task = tasks.get(i - 1);
+            this.nodes += task.worker.nodes;
+            this.searchStatistics.add(task.worker.searchStatistics);
+            this.searchAborted |= task.worker.searchAborted;
+            final int value = task.join();
+            if (isWhite ? value > bound : value < bound) {
+                candidates.add(rootMoves.get(i));
+            }
+        }
+        if (this.searchAborted) {
+            return null;
+        }
+        return searchRoot(bitBoard, candidates, depth, isWhite, alpha, beta);
+    }
+
+    // Moi nuoc o goc dung mot MiniMax rieng (MoveList, bien dem... khong dung chung duoc), chung bang chuyen vi
+    private final class RootMoveTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final BitBoard bitBoard;
+        private final int depth;
+        private final boolean isWhite;
+        private final int bound;           // diem nuoc dau tien (da gioi han trong cua so aspiration)
+        private final MiniMax worker;
+
+        private RootMoveTask(final BitBoard bitBoard, final int depth, final boolean isWhite, final int bound) {
+            this.bitBoard = bitBoard;
+            this.depth = depth;
+            this.isWhite = isWhite;
+            this.bound = bound;
+            this.worker = new MiniMax(searchLimits, 1, parallelSearch, searchParameters, transpositionTable, stopSignal);
+            this.worker.timeManager = timeManager;
+            this.worker.abortAllowed = abortAllowed;
+            this.worker.rootDepth = rootDepth;
+            this.worker.noiseSeed = noiseSeed;
+        }
+
+        @Override
+        protected Integer compute() {
+            return this.isWhite ? this.worker.min(this.bitBoard, this.depth - 1, this.bound, this.bound + 1) :
+                    this.worker.max(this.bitBoard, this.depth - 1, this.bound - 1, this.bound);
+        }
+    }
+
+    // Young Brothers Wait: chi chia nut sau khi nuoc dau tien (anh ca) da tim xong ma khong cat, luc do nut gan nhu
+    // chac chan phai tim het cac nuoc con lai nen tim song song khong phi cong.
+    private boolean canSplit(final int depth, final int moveCount) {
+        return this.pool != null && this.parallelSearch == ParallelSearch.YOUNG_BROTHERS_WAIT &&
+                depth >= MIN_SPLIT_DEPTH && moveCount > 2;
+    }
+
+    // Tim cac nuoc tu thu 2 tro di song song, cac luong con dung chung alpha/beta qua SplitPoint. Cat o mot luong con
+    // thi cac luong con khac thay ngay o isSearchStopped() va bo do, khong dua diem nao vao SplitPoint.
+    private SplitPoint split(final BitBoard bitBoard, final MoveList moves, final int depth, final int alpha,
+                             final int beta, final int bestValue, final int bestMove, final boolean maximizing,
+                             final boolean inCheck, final boolean futile, final int previousMove,
+                             final int singularMove) {
+        final SplitPoint sp = new SplitPoint(this.splitPoint, maximizing, alpha, beta, bestValue, bestMove);
+        final List<SiblingTask> tasks = new ArrayList<>();
+        for (int i = 1; i < moves.size(); i++) {
+            tasks.add(new SiblingTask(sp, bitBoard, moves.get(i), i, depth, inCheck, futile, previousMove,
+                    singularMove));
+        }
+        if (ForkJoinTask.inForkJoinPool()) {
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            this.pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
                 }
-//                System.out.println("Score: " + currentValue);
-//                System.out.println();
+            });
+        }
+        for (final SiblingTask task : tasks) {
+            this.nodes += task.worker.nodes;
+            this.searchStatistics.add(task.worker.searchStatistics);
+        }
+        if (sp.isAborted() || (this.splitPoint != null && this.splitPoint.isCutoff())) {
+            this.searchAborted = true;
+        }
+        return sp;
+    }
+
+    // Moi nuoc em duoc tim dung nhu vong lap tuan tu trong max()/min() (cat tia futility, LMR, PVS), chi khac la
+    // alpha/beta doc tu SplitPoint
+    private final class SiblingTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SplitPoint splitPoint;
+        private final BitBoard bitBoard;
+        private final int move;
+        private final int moveNumber;      // vi tri trong MoveList cua nut chia, dung cho LMR nhu tim tuan tu
+        private final int depth;
+        private final boolean inCheck;
+        private final boolean futile;
+        private final int previousMove;    // ban sao BitBoard khong mang theo lich su nuoc di
+        private final int singularMove;
+        private final MiniMax worker;
+
+        private SiblingTask(final SplitPoint splitPoint, final BitBoard bitBoard, final int move, final int moveNumber,
+                            final int depth, final boolean inCheck, final boolean futile, final int previousMove,
+                            final int singularMove) {
+            this.splitPoint = splitPoint;
+            this.bitBoard = new BitBoard(bitBoard);
+            this.move = move;
+            this.moveNumber = moveNumber;
+            this.depth = depth;
+            this.inCheck = inCheck;
+            this.futile = futile;
+            this.previousMove = previousMove;
+            this.singularMove = singularMove;
+            this.worker = new MiniMax(searchLimits, threads, parallelSearch, searchParameters, transpositionTable,
+                    stopSignal);
+            this.worker.timeManager = timeManager;
+            this.worker.abortAllowed = abortAllowed;
+            this.worker.rootDepth = rootDepth;
+            this.worker.pool = pool;
+            this.worker.splitPoint = splitPoint;
+            this.worker.pathExtensions = pathExtensions;
+            this.worker.noiseSeed = noiseSeed;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.splitPoint.isCutoff() || this.splitPoint.isAborted()) {
+                return;
+            }
+            this.bitBoard.makeMove(this.move);
+            final boolean givesCheck = this.bitBoard.isInCheck(this.bitBoard.getSideToMove());
+            if (this.futile && !givesCheck && SearchHistory.isQuiet(this.move)) {
+                this.worker.searchStatistics.futilityPruned++;
+                return;
+            }
+            final int extension = this.worker.extension(this.bitBoard, this.move, this.previousMove, givesCheck,
+                    this.singularMove);
+            this.worker.pathExtensions += extension;
+            final int newDepth = this.depth - 1 + extension;
+            final int reduction = this.worker.lateMoveReduction(this.move, this.depth, this.moveNumber, this.inCheck,
+                    givesCheck);
+            if (reduction > 0) {
+                this.worker.searchStatistics.reductions++;
+            }
+            final int value = this.splitPoint.isMaximizing() ? searchMin(newDepth, reduction) :
+                    searchMax(newDepth, reduction);
+            // Luong bi dung giua chung (nut chia da cat, het gio) tra ve diem do dang: bo, khong dua vao SplitPoint
+            if (!this.worker.searchAborted) {
+                this.splitPoint.update(value, this.move, this.moveNumber, this.worker.pvLine(1));
+            } else if (!this.splitPoint.isCutoff()) {
+                this.splitPoint.abort();
+            }
+        }
+
+        // Cua so rong 1 tai alpha (nuoc muon con bi giam do sau); vuot alpha thi tim lai du do sau, roi voi cua so day du
+        private int searchMin(final int newDepth, final int reduction) {
+            final int alpha = this.splitPoint.getAlpha();
+            int value = this.worker.min(this.bitBoard, newDepth - reduction, alpha, alpha + 1);
+            if (reduction > 0 && value > alpha && !this.worker.searchAborted) {
+                this.worker.searchStatistics.reSearches++;
+                value = this.worker.min(this.bitBoard, newDepth, alpha, alpha + 1);
+            }
+            final int beta = this.splitPoint.getBeta();
+            if (value > alpha && value < beta && beta - alpha > 1 && !this.worker.searchAborted) {
+                value = this.worker.min(this.bitBoard, newDepth, alpha, beta);
+            }
+            return value;
+        }
+
+        private int searchMax(final int newDepth, final int reduction) {
+            final int beta = this.splitPoint.getBeta();
+            int value = this.worker.max(this.bitBoard, newDepth - reduction, beta - 1, beta);
+            if (reduction > 0 && value < beta && !this.worker.searchAborted) {
+                this.worker.searchStatistics.reSearches++;
+                value = this.worker.max(this.bitBoard, newDepth, beta - 1, beta);
+            }
+            final int alpha = this.splitPoint.getAlpha();
+            if (value < beta && value > alpha && beta - alpha > 1 && !this.worker.searchAborted) {
+                value = this.worker.max(this.bitBoard, newDepth, alpha, beta);
+            }
+            return value;
+        }
+    }
+
+    // Cac luong phu tim cung the co goc voi do sau lech nhau va chi ghi vao bang chuyen vi dung chung;
+    // luong chinh doc lai ket qua qua bang nen xong moi do sau nhanh hon.
+    private void startHelpers(final BitBoard bitBoard, final List<Move> rootMoves, final List<MiniMax> helpers,
+                              final List<Thread> helperThreads) {
+        final int[] packedRootMoves = new int[rootMoves.size()];
+        for (int i = 0; i < packedRootMoves.length; i++) {
+            packedRootMoves[i] = PackedMove.fromMove(rootMoves.get(i));
+        }
+        for (int id = 1; id < this.threads; id++) {
+            final MiniMax helper = new MiniMax(SearchLimits.depth(this.searchLimits.getDepth()), 1, this.parallelSearch,
+                    this.searchParameters, this.transpositionTable, this.stopSignal);
+            helper.noiseSeed = this.noiseSeed;
+            final BitBoard helperBoard = new BitBoard(bitBoard);
+            final int helperId = id;
+            final Thread thread = new Thread(() -> helper.helperSearch(helperBoard, packedRootMoves, helperId),
+                    "MiniMax helper " + id);
+            thread.setDaemon(true);
+            helpers.add(helper);
+            helperThreads.add(thread);
+            thread.start();
+        }
+    }
+
+    private void stopHelpers(final List<MiniMax> helpers, final List<Thread> helperThreads) {
+        this.stopSignal.set(true);
+        for (int i = 0; i < helperThreads.size(); i++) {
+            try {
+                helperThreads.get(i).join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            this.helperNodes += helpers.get(i).nodes;
+            this.searchStatistics.add(helpers.get(i).searchStatistics);
+        }
+        if (!helpers.isEmpty() && this.searchParameters.isVerbose()) {
+            System.out.println("threads " + this.threads + " total nodes " + getNodes());
+        }
+    }
+
+    private void helperSearch(final BitBoard bitBoard, final int[] rootMoves, final int helperId) {
+        this.timeManager = new TimeManager(this.searchLimits);
+        this.abortAllowed = true;
+        final boolean isWhite = bitBoard.getSideToMove().isWhite();
+        final int skipIndex = (helperId - 1) % SKIP_SIZE.length;
+        for (int depth = 1; depth <= this.searchLimits.getDepth() && !this.searchAborted; depth++) {
+            if (((depth + SKIP_PHASE[skipIndex]) / SKIP_SIZE[skipIndex]) % 2 != 0) {
+                continue;
+            }
+            this.rootDepth = depth;
+            int bestValue = isWhite ? -INFINITY : INFINITY;
+            int bestMove = PackedMove.NULL_MOVE;
+            // Bat dau tu mot nuoc khac nhau o moi luong de cac luong it trung nhau; PVS nhu searchRoot
+            for (int i = 0; i < rootMoves.length && !this.searchAborted; i++) {
+                final int move = rootMoves[(i + helperId) % rootMoves.length];
+                bitBoard.makeMove(move);
+                int currentValue;
+                if (i == 0) {
+                    currentValue = isWhite ? min(bitBoard, depth - 1, -INFINITY, INFINITY) :
+                            max(bitBoard, depth - 1, -INFINITY, INFINITY);
+                } else if (isWhite) {
+                    currentValue = min(bitBoard, depth - 1, bestValue, bestValue + 1);
+                    if (currentValue > bestValue && !this.searchAborted) {
+                        currentValue = min(bitBoard, depth - 1, bestValue, INFINITY);
+                    }
+                } else {
+                    currentValue = max(bitBoard, depth - 1, bestValue - 1, bestValue);
+                    if (currentValue < bestValue && !this.searchAborted) {
+                        currentValue = max(bitBoard, depth - 1, -INFINITY, bestValue);
+                    }
+                }
+                bitBoard.unmakeMove();
+                if (!this.searchAborted && (isWhite ? currentValue > bestValue : currentValue < bestValue)) {
+                    bestValue = currentValue;
+                    bestMove = move;
+                }
+            }
+            if (!this.searchAborted) {
+                this.transpositionTable.store(bitBoard.getZobristKey(), bestMove, bestValue, depth, TranspositionTable.EXACT);
+            }
+        }
+    }
+
+    // Chi chon nhung nuoc ma Board cung coi la hop le, vi nuoc tra ve cho GUI la Move cua Board
+    private List<Move> calculateRootMoves(final Board board, final BitBoard bitBoard) {
+        final List<Move> rootMoves = new ArrayList<>();
+        final MoveList moves = moveListAt(bitBoard.getPly());
+        bitBoard.generateLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            final Move move = PackedMove.toMove(board, moves.get(i));
+            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+            if (moveTransition.getMoveStatus().isDone()) {
+                rootMoves.add(move);
+            }
+        }
+        return rootMoves;
+    }
+
+    // Bien chinh cua vong lap xong gan nhat, lay tu bang PV tam giac
+    public String getPrincipalVariation(){
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < this.principalVariation.length; i++) {
+            builder.append(i == 0 ? "" : " ").append(PackedMove.toString(this.principalVariation[i]));
+        }
+        return builder.toString();
+    }
+
+    // Bang PV tam giac: pvTable[ply] giu bien chinh tu tang ply tro di, noi tu nuoc tot nhat va bien chinh cua nut con
+    private void updatePv(final int ply, final int move, final int[] childLine) {
+        if (ply >= MAX_PLY) {
+            return;
+        }
+        this.pvTable[ply][ply] = move;
+        int length = ply + 1;
+        if (childLine != null) {
+            for (int i = 0; i < childLine.length && length < MAX_PLY; i++) {
+                this.pvTable[ply][length++] = childLine[i];
+            }
+        } else if (ply + 1 < MAX_PLY) {
+            for (int i = ply + 1; i < this.pvLength[ply + 1] && length < MAX_PLY; i++) {
+                this.pvTable[ply][length++] = this.pvTable[ply + 1][i];
             }
         }
-        return bestMoves;
+        this.pvLength[ply] = length;
+    }
+
+    private void clearPv(final int ply) {
+        if (ply < MAX_PLY) {
+            this.pvLength[ply] = ply;
+        }
+    }
+
+    private int[] pvLine(final int ply) {
+        return ply < MAX_PLY ? Arrays.copyOfRange(this.pvTable[ply], ply, this.pvLength[ply]) : new int[0];
+    }
+
+    private static int[] prepend(final int move, final int[] line) {
+        final int[] result = new int[line.length + 1];
+        result[0] = move;
+        System.arraycopy(line, 0, result, 1, line.length);
+        return result;
+    }
+
+    // Dem nut va kiem tra gioi han thoi gian/so nut sau moi NODES_BETWEEN_LIMIT_CHECKS nut;
+    // luong con cua nut chia thi dung ngay khi nut chia (hoac nut chia phia tren) da cat
+    // Diem chieu het = CHECK_MATE_BONUS * do sau con lai o nut chieu het, tuy do sau cua lan tim da ghi vao bang chuyen vi.
+    // Muc trong bang co diem chieu het khong dung de cat (diem se sai do lon o do sau khac), chi lay nuoc di.
+    private static boolean isMateScore(final int score) {
+        return Math.abs(score) >= StandardBoardEvaluator.MATE_THRESHOLD;
+    }
+
+    // Hoa trong cay tim kiem: lap lai mot the co truoc do (trong van co hoac tren nhanh dang tim, xem BitBoard.isRepetition)
+    // hoac het 50 nuoc. min/max luon duoc goi sau it nhat mot nuoc tu goc nen the co o goc khong bi tinh.
+    // Het 50 nuoc ma bi chieu het thi van la thua, nen chi khi do moi phai sinh nuoc di de kiem tra.
+    private boolean isDraw(final BitBoard bitBoard) {
+        if (bitBoard.isRepetition()) {
+            return true;
+        }
+        if (!bitBoard.isFiftyMoveDraw()) {
+            return false;
+        }
+        if (!bitBoard.isInCheck(bitBoard.getSideToMove())) {
+            return true;
+        }
+        final MoveList moves = moveListAt(bitBoard.getPly());
+        bitBoard.generateLegalMoves(moves);
+        return !moves.isEmpty();
+    }
+
+    private boolean isSearchStopped() {
+        if (++this.nodes % NODES_BETWEEN_LIMIT_CHECKS == 0 && this.abortAllowed &&
+                (this.stopSignal.get() || this.timeManager.isHardLimitReached(this.nodes))) {
+            this.searchAborted = true;
+        }
+        if (this.splitPoint != null && this.splitPoint.isCutoff()) {
+            this.searchAborted = true;
+        }
+        return this.searchAborted;
+    }
+
+    // Moi tang dung lai mot MoveList, khong cap phat trong luc tim kiem
+    private MoveList moveListAt(final int ply) {
+        if (ply >= this.moveLists.length) {
+            this.moveLists = Arrays.copyOf(this.moveLists, ply * 2);
+        }
+        if (this.moveLists[ply] == null) {
+            this.moveLists[ply] = new MoveList();
+        }
+        return this.moveLists[ply];
+    }
+
+    private MovePicker movePickerAt(final int ply) {
+        if (ply >= this.movePickers.length) {
+            this.movePickers = Arrays.copyOf(this.movePickers, ply * 2);
+        }
+        if (this.movePickers[ply] == null) {
+            this.movePickers[ply] = new MovePicker();
+        }
+        return this.movePickers[ply];
     }
 
-    private boolean isQuietScene(Board board) {
-        if (board.currentPlayer().isInCheck()) return false;
-        for (Piece playerPieces: board.currentPlayer().getActivePieces()) {
-            if (playerPieces.getPieceType() == Piece.PieceType.QUEEN || playerPieces.getPieceType() == Piece.PieceType.ROOK) {
-                int des = playerPieces.getPiecePosition();
-                for (Move move: board.currentPlayer().getOpponent().getLegalMoves()) {
-                    if (move.getDestinationCoordinate() == des)     return false;
+    // Tim kiem tinh lang (quiescence): o la cay chi xet nuoc an va phong hau cho den khi the co yen,
+    // de khong danh gia giua chung mot loat an qua lai (hieu ung chan troi). Ben di co the "dung yen" (stand pat)
+    // neu diem hien tai da du tot; bi chieu ngay o nut dau tien (nuoc cuoi cua cay chinh chieu) thi xet het cac nuoc
+    // thoat chieu, sau do chi xet nuoc an de cay khong no ra.
+    private int quiesceMax(final BitBoard bitBoard, int alpha, final int beta, final boolean checkEvasions) {
+        if (isSearchStopped()) return 0;
+        clearPv(bitBoard.getPly());   // la cua bien chinh
+        final MoveList moves = moveListAt(bitBoard.getPly());
+        bitBoard.generateLegalMoves(moves);
+        if (moves.isEmpty()) { // chieu het hoac hoa pat
+            return evaluate(bitBoard, 0);
+        }
+        final boolean inCheck = checkEvasions && bitBoard.isInCheck(bitBoard.getSideToMove());
+        int highestSeenValue = Integer.MIN_VALUE;
+        int standPat = 0;
+        if (!inCheck) {
+            standPat = evaluate(bitBoard, 0);
+            if (standPat >= beta)                   return standPat;
+            if (alpha < standPat)                   alpha = standPat;
+            highestSeenValue = standPat;
+        }
+        final MovePicker picker = movePickerAt(bitBoard.getPly());
+        if (inCheck) {
+            picker.init(bitBoard, moves, PackedMove.NULL_MOVE, this.searchHistory);
+        } else {
+            picker.initCaptures(bitBoard, moves);
+        }
+        for (int move = picker.next(); move != PackedMove.NULL_MOVE; move = picker.next()) {
+            if (!inCheck) {
+                if (!isTactical(move))              continue;
+                // Delta pruning: bo nuoc an khong the keo diem len toi alpha, nhung van tinh muc toi da no co the dat
+                // vao diem tra ve, de can tren tra ve (va luu vao bang) dung voi moi cua so
+                final int deltaValue = standPat + materialGain(bitBoard, move) + DELTA_MARGIN;
+                if (deltaValue <= alpha) {
+                    if (deltaValue > highestSeenValue)  highestSeenValue = deltaValue;
+                    continue;
                 }
+                if (isLosingCapture(bitBoard, move)) continue;
             }
+            bitBoard.makeMove(move);
+            final int currentValue = quiesceMin(bitBoard, alpha, beta, false);
+            bitBoard.unmakeMove();
+            if (this.searchAborted)                 return 0;
+            if (currentValue > highestSeenValue)    highestSeenValue = currentValue;
+            if (highestSeenValue >= beta)           return highestSeenValue;
+            if (alpha < highestSeenValue)           alpha = highestSeenValue;
         }
-        return true;
+        return highestSeenValue;
     }
-    int Quiesce(Board board, int alpha, int beta ) {
-        int standPat = this.boardEvaluator.evaluate(board, 1);
-        if (standPat >= beta)   return beta;
-        if (alpha < standPat)   alpha = standPat;
-        for(final Move move : board.currentPlayer().getLegalMoves()){
-            if (move.isAttack() && isMidGame(board) && (move.getMovedPiece().getPieceType().mgPieceValue > move.getAttackedPiece().getPieceType().mgPieceValue + 200)){
-                final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    final int score = -Quiesce(moveTransition.getTransitionBoard(), -beta, -alpha );
-                    if( score >= beta )
-                        return beta;
-                    if( score > alpha )
-                        alpha = score;
+
+    private int quiesceMin(final BitBoard bitBoard, final int alpha, int beta, final boolean checkEvasions) {
+        if (isSearchStopped()) return 0;
+        clearPv(bitBoard.getPly());   // la cua bien chinh
+        final MoveList moves = moveListAt(bitBoard.getPly());
+        bitBoard.generateLegalMoves(moves);
+        if (moves.isEmpty()) {
+            return evaluate(bitBoard, 0);
+        }
+        final boolean inCheck = checkEvasions && bitBoard.isInCheck(bitBoard.getSideToMove());
+        int lowestSeenValue = Integer.MAX_VALUE;
+        int standPat = 0;
+        if (!inCheck) {
+            standPat = evaluate(bitBoard, 0);
+            if (standPat <= alpha)                  return standPat;
+            if (beta > standPat)                    beta = standPat;
+            lowestSeenValue = standPat;
+        }
+        final MovePicker picker = movePickerAt(bitBoard.getPly());
+        if (inCheck) {
+            picker.init(bitBoard, moves, PackedMove.NULL_MOVE, this.searchHistory);
+        } else {
+            picker.initCaptures(bitBoard, moves);
+        }
+        for (int move = picker.next(); move != PackedMove.NULL_MOVE; move = picker.next()) {
+            if (!inCheck) {
+                if (!isTactical(move))              continue;
+                final int deltaValue = standPat - materialGain(bitBoard, move) - DELTA_MARGIN;
+                if (deltaValue >= beta) {
+                    if (deltaValue < lowestSeenValue)   lowestSeenValue = deltaValue;
+                    continue;
                 }
+                if (isLosingCapture(bitBoard, move)) continue;
             }
+            bitBoard.makeMove(move);
+            final int currentValue = quiesceMax(bitBoard, alpha, beta, false);
+            bitBoard.unmakeMove();
+            if (this.searchAborted)                 return 0;
+            if (currentValue < lowestSeenValue)     lowestSeenValue = currentValue;
+            if (lowestSeenValue <= alpha)           return lowestSeenValue;
+            if (beta > lowestSeenValue)             beta = lowestSeenValue;
         }
-        return standPat;
+        return lowestSeenValue;
     }
-    private static boolean isEndGameScenario(final Board board) {
-        return board.currentPlayer().isInCheckmate() ||
-                board.currentPlayer().isInStalemate();
+
+    // Chi an quan va phong hau moi lam thay doi vat chat; phong xe/tuong/ma bo qua
+    private static boolean isTactical(final int move) {
+        return PackedMove.isCapture(move) ||
+                (PackedMove.isPromotion(move) && PackedMove.getPromotionType(move) == Piece.PieceType.QUEEN);
     }
-    public int min(final Board board, final int depth, int alpha, int beta){
-        int lowestSeenValue=Integer.MAX_VALUE;
-        if(isEndGameScenario(board)){
-            return this.boardEvaluator.evaluate(board, depth);
+
+    // Vat chat toi da nuoc an/phong hau co the lay duoc, theo thang diem cua StandardBoardEvaluator
+    static int materialGain(final BitBoard bitBoard, final int move) {
+        int gain = 0;
+        if (PackedMove.isEnPassant(move)) {
+            gain += Piece.PieceType.PAWN.egPieceValue;
+        } else if (PackedMove.isCapture(move)) {
+            gain += bitBoard.getPieceTypeAt(PackedMove.getTo(move)).egPieceValue;
+        }
+        if (PackedMove.isPromotion(move)) {
+            gain += PackedMove.getPromotionType(move).egPieceValue - Piece.PieceType.PAWN.egPieceValue;
+        }
+        return gain * StandardBoardEvaluator.PIECE_WEIGHT;
+    }
+
+    // Nuoc an lo vat chat sau khi doi phuong an lai het (SEE < 0); phong hau khong an thi khong bo
+    private static boolean isLosingCapture(final BitBoard bitBoard, final int move) {
+        return PackedMove.isCapture(move) && bitBoard.see(move) < 0;
+    }
+
+    // Chi thu o nut cua so rong 1 (PVS); khong nhuong luot khi bi chieu (nuoc trong khong hop le), ngay sau mot nuoc
+    // trong khac, hoac khi ben di chi con vua va tot (zugzwang: khong duoc di lai tot hon phai di)
+    private boolean canTryNullMove(final BitBoard bitBoard, final int depth, final boolean nullWindow,
+                                   final boolean inCheck) {
+        return this.searchParameters.isNullMovePruning() && depth >= NULL_MOVE_MIN_DEPTH && nullWindow && !inCheck &&
+                bitBoard.getLastMove() != PackedMove.NULL_MOVE &&
+                bitBoard.hasNonPawnMaterial(bitBoard.getSideToMove());
+    }
+
+    // Danh gia tinh chi can cho nut sat la, cua so rong 1, khong bi chieu (futility/reverse futility/razoring)
+    private boolean needsStaticEval(final int depth, final boolean nullWindow, final boolean inCheck) {
+        return nullWindow && !inCheck &&
+                ((this.searchParameters.isFutilityPruning() && depth <= this.searchParameters.getFutilityDepth()) ||
+                 (this.searchParameters.isReverseFutilityPruning() && depth <= this.searchParameters.getReverseFutilityDepth()) ||
+                 (this.searchParameters.isRazoring() && depth <= this.searchParameters.getRazorDepth()));
+    }
+
+    // ProbCut: o nut du sau, nuoc an khong lo (SEE >= 0) ma tim nong hon probCutReduction tang van vuot beta mot
+    // khoang margin thi nhieu kha nang tim day du cung vuot beta
+    private boolean canTryProbCut(final int depth, final boolean nullWindow, final boolean inCheck) {
+        return this.searchParameters.isProbCut() && depth >= this.searchParameters.getProbCutDepth() &&
+                nullWindow && !inCheck;
+    }
+
+    private static boolean isProbCutCandidate(final BitBoard bitBoard, final int move) {
+        return !SearchHistory.isQuiet(move) && !isLosingCapture(bitBoard, move);
+    }
+
+    // So tang keo dai cho nuoc vua make, trong ngan sach con lai cua nhanh hien tai
+    private int extension(final BitBoard bitBoard, final int move, final int previousMove, final boolean givesCheck,
+                          final int singularMove) {
+        final ExtensionPolicy policy = this.searchParameters.getExtensionPolicy();
+        final int budget = policy.maxPathExtensions(this.rootDepth) - this.pathExtensions;
+        if (budget <= 0) {
+            return 0;
+        }
+        if (move == singularMove) {
+            this.searchStatistics.singularExtensions++;
+            return 1;
+        }
+        final int extension = Math.min(budget, policy.extension(bitBoard, move, previousMove, givesCheck));
+        if (extension > 0) {
+            this.searchStatistics.extensions++;
         }
-        if (depth==0) { //quiescenceSearch
-            if (!isQuietScene(board) && !quietBefore) {
-                quietBefore = true;
-                return min(board, 3, alpha, beta);
+        return extension;
+    }
+
+    // Singular extension: muc trong bang chuyen vi cho nuoc tot nhat du sau; tim cac nuoc con lai nong hon mot nua voi
+    // cua so rong 1 o diem trong bang tru margin (nut min: cong margin). Khong nuoc nao toi duoc thi nuoc trong bang la
+    // nuoc doc nhat, tra ve no de duoc keo dai; nguoc lai tra ve PackedMove.NULL_MOVE.
+    private int singularMove(final BitBoard bitBoard, final MoveList moves, final int depth, final long entry,
+                             final boolean maximizing) {
+        final ExtensionPolicy policy = this.searchParameters.getExtensionPolicy();
+        if (entry == TranspositionTable.MISS ||
+                !policy.isSingularCandidate(depth, TranspositionTable.getDepth(entry)) ||
+                TranspositionTable.getBound(entry) == (maximizing ? TranspositionTable.UPPER : TranspositionTable.LOWER) ||
+                isMateScore(TranspositionTable.getScore(entry)) ||
+                this.pathExtensions >= policy.maxPathExtensions(this.rootDepth)) {
+            return PackedMove.NULL_MOVE;
+        }
+        final int tableMove = TranspositionTable.getMove(entry);
+        if (!moves.contains(tableMove)) {
+            return PackedMove.NULL_MOVE;   // dung do khoa trong bang
+        }
+        final int margin = policy.singularMargin(depth);
+        final int bound = maximizing ? TranspositionTable.getScore(entry) - margin :
+                TranspositionTable.getScore(entry) + margin;
+        final int singularDepth = (depth - 1) / 2;
+        for (int k = 0; k < moves.size(); k++) {
+            final int move = moves.get(k);
+            if (move == tableMove) {
+                continue;
+            }
+            bitBoard.makeMove(move);
+            final int value = maximizing ? min(bitBoard, singularDepth, bound - 1, bound) :
+                    max(bitBoard, singularDepth, bound, bound + 1);
+            bitBoard.unmakeMove();
+            if (this.searchAborted || (maximizing ? value >= bound : value <= bound)) {
+                return PackedMove.NULL_MOVE;
             }
-            else return this.boardEvaluator.evaluate(board, depth);
-//            return Quiesce(board, alpha, beta);
         }
+        return tableMove;
+    }
 
-        if (depth > 4 && !board.currentPlayer().isInCheck()) { // null move heuristtic (depth > 3 && notZugzwangBoard()) //TODO
-            final int nullValue = max(board, 3, alpha, beta);
-            if (nullValue <= alpha)           return nullValue;
-            if (beta >= nullValue)            beta = nullValue;
+    // LMR: nuoc yen lang, khong chieu, nam sau lmrMinMoveNumber nuoc dau, nut khong bi chieu; giu it nhat 1 tang
+    private int lateMoveReduction(final int move, final int depth, final int moveNumber, final boolean inCheck,
+                                  final boolean givesCheck) {
+        if (!this.searchParameters.isLateMoveReductions() || depth < this.searchParameters.getLmrMinDepth() ||
+                moveNumber < this.searchParameters.getLmrMinMoveNumber() || inCheck || givesCheck ||
+                !SearchHistory.isQuiet(move)) {
+            return 0;
         }
-        for(final Move move : board.currentPlayer().getLegalMoves()){
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if(moveTransition.getMoveStatus().isDone()){
-                final int currentValue = max(moveTransition.getTransitionBoard(),depth-1, alpha, beta);
-                if(currentValue <= lowestSeenValue)     lowestSeenValue = currentValue;
-                if (lowestSeenValue <= alpha)           return lowestSeenValue;
-                if (beta >= lowestSeenValue)            beta = lowestSeenValue;
+        final int reduction = LMR_REDUCTIONS[Math.min(depth, MAX_PLY - 1)][Math.min(moveNumber, MAX_PLY - 1)];
+        return Math.max(1, Math.min(reduction, depth - 2));
+    }
+
+    private static int nullMoveReduction(final int depth) {
+        return depth >= DEEP_NULL_MOVE_DEPTH ? DEEP_NULL_MOVE_REDUCTION : NULL_MOVE_REDUCTION;
+    }
+
+    public int min(final BitBoard bitBoard, final int depth, int alpha, int beta){
+        if (depth <= 0) return quiesceMin(bitBoard, alpha, beta, true);
+        if (isSearchStopped()) return 0;
+        final int ply = bitBoard.getPly();
+        clearPv(ply);
+        if (isDraw(bitBoard))   return DRAW_SCORE;
+        int lowestSeenValue=Integer.MAX_VALUE;
+        final long key = bitBoard.getZobristKey();
+        final long entry = this.transpositionTable.probe(key);
+        int tableMove = PackedMove.NULL_MOVE;
+        if (entry != TranspositionTable.MISS) {
+            tableMove = TranspositionTable.getMove(entry);
+            if (TranspositionTable.getDepth(entry) >= depth) {
+                final int score = TranspositionTable.getScore(entry);
+                final int bound = TranspositionTable.getBound(entry);
+                if (!isMateScore(score) && (bound == TranspositionTable.EXACT ||
+                        (bound == TranspositionTable.UPPER && score <= alpha) ||
+                        (bound == TranspositionTable.LOWER && score >= beta))) {
+                    return score;
+                }
+            }
+        }
+        final MoveList moves = moveListAt(bitBoard.getPly());
+        bitBoard.generateLegalMoves(moves);
+        if(moves.isEmpty()){ // chieu het hoac hoa pat
+            return evaluate(bitBoard, depth);
+        }
+
+        final boolean nullWindow = beta - alpha <= 1;
+        final boolean inCheck = bitBoard.isInCheck(bitBoard.getSideToMove());
+        boolean futile = false;
+        if (needsStaticEval(depth, nullWindow, inCheck)) {
+            final int staticEval = evaluate(bitBoard, depth);
+            // Razoring: diem tinh cao hon beta qua xa, chi con nuoc an moi cuu duoc nen hoi tim kiem tinh lang
+            // (dung chung MoveList cua tang nay, chi doi thu tu nuoc)
+            if (this.searchParameters.isRazoring() && depth <= this.searchParameters.getRazorDepth() &&
+                    staticEval - this.searchParameters.getRazorMargin() * depth >= beta) {
+                final int razorValue = quiesceMin(bitBoard, beta - 1, beta, false);
+                if (this.searchAborted)       return 0;
+                if (razorValue >= beta) {
+                    this.searchStatistics.razored++;
+                    return razorValue;
+                }
+            }
+            // Reverse futility: du doi thu duoc them margin van <= alpha thi nut nay chac chan fail low
+            if (this.searchParameters.isReverseFutilityPruning() && depth <= this.searchParameters.getReverseFutilityDepth() &&
+                    staticEval + this.searchParameters.getReverseFutilityMargin() * depth <= alpha) {
+                this.searchStatistics.reverseFutilityPruned++;
+                return staticEval + this.searchParameters.getReverseFutilityMargin() * depth;
             }
+            // Futility: nuoc yen lang khong keo duoc diem xuong duoi beta du co them margin
+            futile = this.searchParameters.isFutilityPruning() && depth <= this.searchParameters.getFutilityDepth() &&
+                    staticEval - this.searchParameters.getFutilityMargin() * depth >= beta;
         }
+        if (canTryNullMove(bitBoard, depth, nullWindow, inCheck)) {
+            this.searchStatistics.nullMoveTries++;
+            bitBoard.makeNullMove();
+            final int nullValue = max(bitBoard, depth - 1 - nullMoveReduction(depth), alpha, alpha + 1);
+            bitBoard.unmakeNullMove();
+            if (this.searchAborted)           return 0;
+            if (nullValue <= alpha) {
+                this.searchStatistics.nullMoveCutoffs++;
+                return alpha;   // khong tra diem chieu het chua kiem chung
+            }
+        }
+        if (canTryProbCut(depth, nullWindow, inCheck)) {
+            final int probAlpha = alpha - this.searchParameters.getProbCutMargin();
+            final int probDepth = depth - 1 - this.searchParameters.getProbCutReduction();
+            for (int k = 0; k < moves.size(); k++) {
+                final int move = moves.get(k);
+                if (!isProbCutCandidate(bitBoard, move)) {
+                    continue;
+                }
+                this.searchStatistics.probCutTries++;
+                bitBoard.makeMove(move);
+                // tim kiem tinh lang loc truoc, chi nuoc qua duoc moi tim nong
+                int probValue = quiesceMax(bitBoard, probAlpha, probAlpha + 1, true);
+                if (probValue <= probAlpha && !this.searchAborted) {
+                    probValue = max(bitBoard, probDepth, probAlpha, probAlpha + 1);
+                }
+                bitBoard.unmakeMove();
+                if (this.searchAborted)       return 0;
+                if (probValue <= probAlpha) {
+                    this.searchStatistics.probCutCutoffs++;
+                    this.transpositionTable.store(key, move, probValue, probDepth + 1, TranspositionTable.UPPER);
+                    return probValue;
+                }
+            }
+        }
+        final int singularMove = singularMove(bitBoard, moves, depth, entry, false);
+        if (this.searchAborted)               return 0;
+        clearPv(ply);   // null move, ProbCut, singular o tang sau da ghi vao bang PV
+        final int previousMove = bitBoard.getLastMove();
+        final int originalBeta = beta;
+        int bestMove = PackedMove.NULL_MOVE;
+        final MovePicker picker = movePickerAt(ply);
+        picker.init(bitBoard, moves, tableMove, this.searchHistory);
+        int i = 0;
+        for(int move = picker.next(); move != PackedMove.NULL_MOVE; move = picker.next(), i++){
+            bitBoard.makeMove(move);
+            final boolean givesCheck = bitBoard.isInCheck(bitBoard.getSideToMove());
+            if (futile && i > 0 && !givesCheck && SearchHistory.isQuiet(move)) {
+                bitBoard.unmakeMove();
+                this.searchStatistics.futilityPruned++;
+                continue;
+            }
+            final int extension = extension(bitBoard, move, previousMove, givesCheck, singularMove);
+            final int newDepth = depth - 1 + extension;
+            this.pathExtensions += extension;
+            int currentValue;
+            if (i == 0) {
+                currentValue = max(bitBoard, newDepth, alpha, beta);
+            } else {
+                // PVS: cac nuoc sau nuoc dau chi can chung minh khong tot hon, dung cua so rong 1 (nuoc muon con bi
+                // giam do sau); vuot cua so thi tim lai du do sau, roi voi cua so day du
+                final int reduction = lateMoveReduction(move, depth, i, inCheck, givesCheck);
+                currentValue = max(bitBoard, newDepth - reduction, beta - 1, beta);
+                if (reduction > 0) {
+                    this.searchStatistics.reductions++;
+                    if (currentValue < beta && !this.searchAborted) {
+                        this.searchStatistics.reSearches++;
+                        currentValue = max(bitBoard, newDepth, beta - 1, beta);
+                    }
+                }
+                if (currentValue < beta && currentValue > alpha && beta - alpha > 1 && !this.searchAborted) {
+                    currentValue = max(bitBoard, newDepth, alpha, beta);
+                }
+            }
+            this.pathExtensions -= extension;
+            bitBoard.unmakeMove();
+            if (this.searchAborted)                 return 0;   // ket qua do dang, khong luu vao bang
+            if (currentValue < beta)                updatePv(ply, move, null);
+            if(currentValue <= lowestSeenValue) {
+                lowestSeenValue = currentValue;
+                bestMove = move;
+            }
+            if (lowestSeenValue <= alpha) {
+                this.searchHistory.update(bitBoard, moves, i, depth);
+                this.transpositionTable.store(key, bestMove, lowestSeenValue, depth, TranspositionTable.UPPER);
+                return lowestSeenValue;
+            }
+            if (beta >= lowestSeenValue)            beta = lowestSeenValue;
+            if (i == 0 && canSplit(depth, moves.size())) {
+                picker.drain();   // cac nuoc em theo dung thu tu trong moves
+                final SplitPoint sp = split(bitBoard, moves, depth, alpha, beta, lowestSeenValue, bestMove, false,
+                        inCheck, futile, previousMove, singularMove);
+                if (this.searchAborted)             return 0;
+                lowestSeenValue = sp.getBestValue();
+                bestMove = sp.getBestMove();
+                if (sp.getBestLine() != null)       updatePv(ply, bestMove, sp.getBestLine());
+                if (lowestSeenValue <= alpha) {
+                    this.searchHistory.update(bitBoard, moves, sp.getBestMoveNumber(), depth);
+                    this.transpositionTable.store(key, bestMove, lowestSeenValue, depth, TranspositionTable.UPPER);
+                    return lowestSeenValue;
+                }
+                break;
+            }
+        }
+        this.transpositionTable.store(key, bestMove, lowestSeenValue, depth,
+                lowestSeenValue >= originalBeta ? TranspositionTable.LOWER : TranspositionTable.EXACT);
         return lowestSeenValue;
     }
-    public int max(final Board board, final int depth, int alpha, int beta){
+    public int max(final BitBoard bitBoard, final int depth, int alpha, int beta){
+        if (depth <= 0) return quiesceMax(bitBoard, alpha, beta, true);
+        if (isSearchStopped()) return 0;
+        final int ply = bitBoard.getPly();
+        clearPv(ply);
+        if (isDraw(bitBoard))   return DRAW_SCORE;
         int highestSeenValue=Integer.MIN_VALUE;
-        if(isEndGameScenario(board)){
-            return this.boardEvaluator.evaluate(board, depth);
+        final long key = bitBoard.getZobristKey();
+        final long entry = this.transpositionTable.probe(key);
+        int tableMove = PackedMove.NULL_MOVE;
+        if (entry != TranspositionTable.MISS) {
+            tableMove = TranspositionTable.getMove(entry);
+            if (TranspositionTable.getDepth(entry) >= depth) {
+                final int score = TranspositionTable.getScore(entry);
+                final int bound = TranspositionTable.getBound(entry);
+                if (!isMateScore(score) && (bound == TranspositionTable.EXACT ||
+                        (bound == TranspositionTable.LOWER && score >= beta) ||
+                        (bound == TranspositionTable.UPPER && score <= alpha))) {
+                    return score;
+                }
+            }
+        }
+        final MoveList moves = moveListAt(bitBoard.getPly());
+        bitBoard.generateLegalMoves(moves);
+        if(moves.isEmpty()){ // chieu het hoac hoa pat
+            return evaluate(bitBoard, depth);
         }
-        if (depth==0) {
-            if (isQuietScene(board) && !quietBefore) {
-                quietBefore = true;
-                return max(board, 3, alpha, beta);
+        final boolean nullWindow = beta - alpha <= 1;
+        final boolean inCheck = bitBoard.isInCheck(bitBoard.getSideToMove());
+        boolean futile = false;
+        if (needsStaticEval(depth, nullWindow, inCheck)) {
+            final int staticEval = evaluate(bitBoard, depth);
+            if (this.searchParameters.isRazoring() && depth <= this.searchParameters.getRazorDepth() &&
+                    staticEval + this.searchParameters.getRazorMargin() * depth <= alpha) {
+                final int razorValue = quiesceMax(bitBoard, alpha, alpha + 1, false);
+                if (this.searchAborted)      return 0;
+                if (razorValue <= alpha) {
+                    this.searchStatistics.razored++;
+                    return razorValue;
+                }
+            }
+            if (this.searchParameters.isReverseFutilityPruning() && depth <= this.searchParameters.getReverseFutilityDepth() &&
+                    staticEval - this.searchParameters.getReverseFutilityMargin() * depth >= beta) {
+                this.searchStatistics.reverseFutilityPruned++;
+                return staticEval - this.searchParameters.getReverseFutilityMargin() * depth;
             }
-            else return this.boardEvaluator.evaluate(board, depth);
-//            return Quiesce(board, alpha, beta);
+            futile = this.searchParameters.isFutilityPruning() && depth <= this.searchParameters.getFutilityDepth() &&
+                    staticEval + this.searchParameters.getFutilityMargin() * depth <= alpha;
         }
-        if (depth > 4 && !board.currentPlayer().isInCheck()) {
-            final int nullValue = min(board, 3, alpha, beta);
-            if (nullValue >= beta)           return nullValue;
-            if (alpha <= nullValue)          alpha = nullValue;
+        if (canTryNullMove(bitBoard, depth, nullWindow, inCheck)) {
+            this.searchStatistics.nullMoveTries++;
+            bitBoard.makeNullMove();
+            final int nullValue = min(bitBoard, depth - 1 - nullMoveReduction(depth), beta - 1, beta);
+            bitBoard.unmakeNullMove();
+            if (this.searchAborted)          return 0;
+            if (nullValue >= beta) {
+                this.searchStatistics.nullMoveCutoffs++;
+                return beta;
+            }
         }
-        for(final Move move : board.currentPlayer().getLegalMoves()){
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if(moveTransition.getMoveStatus().isDone()){
-                final int currentValue = min(moveTransition.getTransitionBoard(),depth-1, alpha, beta);
-                if(currentValue >= highestSeenValue)    highestSeenValue = currentValue;
-                if (highestSeenValue >= beta)           return highestSeenValue;
-                if (alpha <= highestSeenValue)          alpha = highestSeenValue;
+        if (canTryProbCut(depth, nullWindow, inCheck)) {
+            final int probBeta = beta + this.searchParameters.getProbCutMargin();
+            final int probDepth = depth - 1 - this.searchParameters.getProbCutReduction();
+            for (int k = 0; k < moves.size(); k++) {
+                final int move = moves.get(k);
+                if (!isProbCutCandidate(bitBoard, move)) {
+                    continue;
+                }
+                this.searchStatistics.probCutTries++;
+                bitBoard.makeMove(move);
+                int probValue = quiesceMin(bitBoard, probBeta - 1, probBeta, true);
+                if (probValue >= probBeta && !this.searchAborted) {
+                    probValue = min(bitBoard, probDepth, probBeta - 1, probBeta);
+                }
+                bitBoard.unmakeMove();
+                if (this.searchAborted)      return 0;
+                if (probValue >= probBeta) {
+                    this.searchStatistics.probCutCutoffs++;
+                    this.transpositionTable.store(key, move, probValue, probDepth + 1, TranspositionTable.LOWER);
+                    return probValue;
+                }
             }
         }
+        final int singularMove = singularMove(bitBoard, moves, depth, entry, true);
+        if (this.searchAborted)              return 0;
+        clearPv(ply);
+        final int previousMove = bitBoard.getLastMove();
+        final int originalAlpha = alpha;
+        int bestMove = PackedMove.NULL_MOVE;
+        final MovePicker picker = movePickerAt(ply);
+        picker.init(bitBoard, moves, tableMove, this.searchHistory);
+        int i = 0;
+        for(int move = picker.next(); move != PackedMove.NULL_MOVE; move = picker.next(), i++){
+            bitBoard.makeMove(move);
+            final boolean givesCheck = bitBoard.isInCheck(bitBoard.getSideToMove());
+            if (futile && i > 0 && !givesCheck && SearchHistory.isQuiet(move)) {
+                bitBoard.unmakeMove();
+                this.searchStatistics.futilityPruned++;
+                continue;
+            }
+            final int extension = extension(bitBoard, move, previousMove, givesCheck, singularMove);
+            final int newDepth = depth - 1 + extension;
+            this.pathExtensions += extension;
+            int currentValue;
+            if (i == 0) {
+                currentValue = min(bitBoard, newDepth, alpha, beta);
+            } else {
+                final int reduction = lateMoveReduction(move, depth, i, inCheck, givesCheck);
+                currentValue = min(bitBoard, newDepth - reduction, alpha, alpha + 1);
+                if (reduction > 0) {
+                    this.searchStatistics.reductions++;
+                    if (currentValue > alpha && !this.searchAborted) {
+                        this.searchStatistics.reSearches++;
+                        currentValue = min(bitBoard, newDepth, alpha, alpha + 1);
+                    }
+                }
+                if (currentValue > alpha && currentValue < beta && beta - alpha > 1 && !this.searchAborted) {
+                    currentValue = min(bitBoard, newDepth, alpha, beta);
+                }
+            }
+            this.pathExtensions -= extension;
+            bitBoard.unmakeMove();
+            if (this.searchAborted)                 return 0;
+            if (currentValue > alpha)               updatePv(ply, move, null);
+            if(currentValue >= highestSeenValue) {
+                highestSeenValue = currentValue;
+                bestMove = move;
+            }
+            if (highestSeenValue >= beta) {
+                this.searchHistory.update(bitBoard, moves, i, depth);
+                this.transpositionTable.store(key, bestMove, highestSeenValue, depth, TranspositionTable.LOWER);
+                return highestSeenValue;
+            }
+            if (alpha <= highestSeenValue)          alpha = highestSeenValue;
+            if (i == 0 && canSplit(depth, moves.size())) {
+                picker.drain();   // cac nuoc em theo dung thu tu trong moves
+                final SplitPoint sp = split(bitBoard, moves, depth, alpha, beta, highestSeenValue, bestMove, true,
+                        inCheck, futile, previousMove, singularMove);
+                if (this.searchAborted)             return 0;
+                highestSeenValue = sp.getBestValue();
+                bestMove = sp.getBestMove();
+                if (sp.getBestLine() != null)       updatePv(ply, bestMove, sp.getBestLine());
+                if (highestSeenValue >= beta) {
+                    this.searchHistory.update(bitBoard, moves, sp.getBestMoveNumber(), depth);
+                    this.transpositionTable.store(key, bestMove, highestSeenValue, depth, TranspositionTable.LOWER);
+                    return highestSeenValue;
+                }
+                break;
+            }
+        }
+        this.transpositionTable.store(key, bestMove, highestSeenValue, depth,
+                highestSeenValue <= originalAlpha ? TranspositionTable.UPPER : TranspositionTable.EXACT);
         return highestSeenValue;
     }
+    // Danh gia tinh cong nhieu nho, co dinh theo the co (khoa Zobrist) va seed cua lan tim: cung the co luon cung diem
+    // nen bang chuyen vi van nhat quan, cung seed thi cung nuoc di. Nhieu thay cho viec chon ngau nhien giua cac nuoc
+    // bang diem o goc, de goc duoc tim voi cua so hep.
+    private int evaluate(final BitBoard bitBoard, final int depth) {
+        return this.boardEvaluator.evaluate(bitBoard, depth) + evaluationNoise(bitBoard.getZobristKey());
+    }
+
+    private int evaluationNoise(final long key) {
+        final int noise = this.searchParameters.getEvaluationNoise();
+        if (noise == 0) {
+            return 0;
+        }
+        // Tron bit kieu SplitMix64 de cac khoa gan nhau cho nhieu khac nhau
+        long h = key ^ this.noiseSeed;
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        h ^= h >>> 31;
+        return (int) Math.floorMod(h, 2L * noise + 1) - noise;
+    }
+
     public static <T> T random(Collection<T> coll) {
         int num = (int) (Math.random() * coll.size());
         for(T t: coll) if (--num < 0) return t;
@@ -0,0 +1,181 @@
+package com.chess.engine.player.al;
+
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+
+final class MovePicker {
+    // Tra ve lan luot tung nuoc cua mot nut theo tung giai doan, chi chon nuoc tot nhat con lai khi can (selection)
+    // thay vi sap xep ca danh sach: nut thuong cat sau vai nuoc dau nen phan lon danh sach khong can xep.
+    // Nuoc thu k tra ve luon nam o moves.get(k), nen sau khi cat van biet cac nuoc da thu truoc do.
+
+    private static final int HASH_MOVE = 0;
+    private static final int CAPTURES_INIT = 1;
+    private static final int GOOD_CAPTURES = 2;
+    private static final int KILLER_1 = 3;
+    private static final int KILLER_2 = 4;
+    private static final int COUNTER_MOVE = 5;
+    private static final int QUIETS_INIT = 6;
+    private static final int QUIETS = 7;
+    private static final int BAD_CAPTURES = 8;
+    private static final int DONE = 9;
+
+    private static final int BAD_CAPTURE = Integer.MIN_VALUE;   // diem danh dau nuoc an lo (SEE < 0)
+
+    private BitBoard bitBoard;
+    private MoveList moves;
+    private SearchHistory searchHistory;
+    private int tableMove;
+    private boolean capturesOnly;
+    private int stage;
+    private int current;               // so nuoc da tra ve, cung la vi tri dau phan chua chon
+    private int[] scores = new int[256];
+    private final int[] specialMoves = new int[3];   // killer 1, killer 2, counter move
+
+    // Nut cua cay chinh: nuoc tu bang chuyen vi, nuoc an lai (MVV-LVA, SEE >= 0), killer, counter move,
+    // nuoc yen lang theo history, cuoi cung la nuoc an lo
+    void init(final BitBoard bitBoard, final MoveList moves, final int tableMove, final SearchHistory searchHistory) {
+        this.bitBoard = bitBoard;
+        this.moves = moves;
+        this.searchHistory = searchHistory;
+        this.tableMove = tableMove;
+        this.capturesOnly = false;
+        this.stage = HASH_MOVE;
+        this.current = 0;
+        if (this.scores.length < moves.size()) {
+            this.scores = new int[moves.size() * 2];
+        }
+        final int ply = bitBoard.getPly();
+        this.specialMoves[0] = searchHistory.killer(ply, 0);
+        this.specialMoves[1] = searchHistory.killer(ply, 1);
+        this.specialMoves[2] = searchHistory.counterMove(bitBoard.getLastMove());
+    }
+
+    // Tim kiem tinh lang: chi nuoc an va phong hau theo MVV-LVA, khong loai nuoc an lo (qsearch tu loc bang SEE)
+    void initCaptures(final BitBoard bitBoard, final MoveList moves) {
+        this.bitBoard = bitBoard;
+        this.moves = moves;
+        this.searchHistory = null;
+        this.tableMove = PackedMove.NULL_MOVE;
+        this.capturesOnly = true;
+        this.stage = CAPTURES_INIT;
+        this.current = 0;
+        if (this.scores.length < moves.size()) {
+            this.scores = new int[moves.size() * 2];
+        }
+    }
+
+    // PackedMove.NULL_MOVE khi da het nuoc
+    int next() {
+        while (true) {
+            switch (this.stage) {
+                case HASH_MOVE -> {
+                    this.stage = CAPTURES_INIT;
+                    if (this.tableMove != PackedMove.NULL_MOVE && pick(indexOf(this.tableMove))) {
+                        return this.tableMove;
+                    }
+                }
+                case CAPTURES_INIT -> {
+                    for (int i = this.current; i < this.moves.size(); i++) {
+                        final int move = this.moves.get(i);
+                        this.scores[i] = SearchHistory.isQuiet(move) ? 0 : captureOrder(this.bitBoard, move);
+                    }
+                    this.stage = GOOD_CAPTURES;
+                }
+                case GOOD_CAPTURES -> {
+                    final int index = bestIndex(false);
+                    if (index < 0) {
+                        this.stage = this.capturesOnly ? DONE : KILLER_1;
+                    } else if (!this.capturesOnly && PackedMove.isCapture(this.moves.get(index)) &&
+                            this.bitBoard.see(this.moves.get(index)) < 0) {
+                        this.scores[index] = BAD_CAPTURE;   // de danh cho giai doan cuoi
+                    } else {
+                        return take(index);
+                    }
+                }
+                case KILLER_1, KILLER_2, COUNTER_MOVE -> {
+                    final int move = this.specialMoves[this.stage - KILLER_1];
+                    this.stage++;
+                    if (move != PackedMove.NULL_MOVE && SearchHistory.isQuiet(move) && pick(indexOf(move))) {
+                        return move;
+                    }
+                }
+                case QUIETS_INIT -> {
+                    final int side = this.bitBoard.getSideToMove().ordinal();
+                    for (int i = this.current; i < this.moves.size(); i++) {
+                        if (SearchHistory.isQuiet(this.moves.get(i))) {
+                            this.scores[i] = this.searchHistory.historyScore(side, this.moves.get(i));
+                        }
+                    }
+                    this.stage = QUIETS;
+                }
+                case QUIETS -> {
+                    final int index = bestIndex(true);
+                    if (index >= 0) {
+                        return take(index);
+                    }
+                    this.stage = BAD_CAPTURES;
+                }
+                case BAD_CAPTURES -> {
+                    if (this.current < this.moves.size()) {
+                        return take(this.current);
+                    }
+                    this.stage = DONE;
+                }
+                default -> {
+                    return PackedMove.NULL_MOVE;
+                }
+            }
+        }
+    }
+
+    // Chay het picker: cac nuoc con lai nam theo dung thu tu trong moves (dung truoc khi chia cho nhieu luong)
+    void drain() {
+        while (next() != PackedMove.NULL_MOVE) {
+            // nuoc thu k da duoc dua ve moves.get(k)
+        }
+    }
+
+    // MVV-LVA: quan bi an dat nhat truoc, cung quan bi an thi quan an re nhat truoc
+    static int captureOrder(final BitBoard bitBoard, final int move) {
+        return MiniMax.materialGain(bitBoard, move) * 8 - bitBoard.getPieceTypeAt(PackedMove.getFrom(move)).ordinal();
+    }
+
+    private int bestIndex(final boolean quiet) {
+        int best = -1;
+        for (int i = this.current; i < this.moves.size(); i++) {
+            if (SearchHistory.isQuiet(this.moves.get(i)) == quiet && this.scores[i] != BAD_CAPTURE &&
+                    (best < 0 || this.scores[i] > this.scores[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private int indexOf(final int move) {
+        for (int i = this.current; i < this.moves.size(); i++) {
+            if (this.moves.get(i) == move) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean pick(final int index) {
+        if (index < 0) {
+            return false;
+        }
+        take(index);
+        return true;
+    }
+
+    private int take(final int index) {
+        final int move = this.moves.get(index);
+        this.moves.swap(this.current, index);
+        final int score = this.scores[index];
+        this.scores[index] = this.scores[this.current];
+        this.scores[this.current] = score;
+        this.current++;
+        return move;
+    }
+}
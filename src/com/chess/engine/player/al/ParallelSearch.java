@@ -0,0 +1,23 @@
+package com.chess.engine.player.al;
+
+public enum ParallelSearch {
+    // Cach MiniMax dung nhieu luong khi so luong > 1
+    LAZY_SMP {
+        @Override
+        public String toString() {
+            return "Lazy SMP";
+        }
+    },
+    ROOT_SPLIT {
+        @Override
+        public String toString() {
+            return "Root split";
+        }
+    },
+    YOUNG_BROTHERS_WAIT {
+        @Override
+        public String toString() {
+            return "Young Brothers Wait";
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.chess.engine.player.al;
+
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+
+import java.util.Arrays;
+
+final class SearchHistory {
+    // Cac bang sap xep nuoc yen lang (khong an, khong phong cap) hoc trong luc tim kiem, cap nhat khi co cat beta:
+    // - killer: 2 nuoc yen lang gan nhat gay cat o moi tang
+    // - history (butterfly): diem theo ben di, o di, o den; nuoc gay cat duoc cong, nuoc thu truoc do bi tru
+    // - counter move: nuoc tra loi gay cat cho tung nuoc vua di cua doi phuong
+    // MovePicker dung cac bang nay de xep nuoc yen lang sau nuoc an.
+
+    private static final int KILLER_SLOTS = 2;
+    private static final int MAX_HISTORY = 1 << 20;          // vuot qua thi chia doi ca bang
+
+    private final int[][] killers;
+    private final int[][][] history;        // [ben di][o di][o den]
+    private final int[][] counterMoves;     // [o di][o den] cua nuoc vua di
+
+    SearchHistory(final int maxPly) {
+        this.killers = new int[maxPly][KILLER_SLOTS];
+        this.history = new int[2][64][64];
+        this.counterMoves = new int[64][64];
+    }
+
+    // Moi lan tim nuoc moi: killer theo tang khong con dung nua, history giam mot nua de the co moi nhanh chiem uu the
+    void newSearch() {
+        for (final int[] slots : this.killers) {
+            Arrays.fill(slots, PackedMove.NULL_MOVE);
+        }
+        ageHistory();
+    }
+
+    private void ageHistory() {
+        for (final int[][] side : this.history) {
+            for (final int[] from : side) {
+                for (int to = 0; to < from.length; to++) {
+                    from[to] /= 2;
+                }
+            }
+        }
+    }
+
+    static boolean isQuiet(final int move) {
+        return !PackedMove.isCapture(move) && !PackedMove.isPromotion(move);
+    }
+
+    int killer(final int ply, final int slot) {
+        return ply < this.killers.length ? this.killers[ply][slot] : PackedMove.NULL_MOVE;
+    }
+
+    int counterMove(final int lastMove) {
+        return lastMove == PackedMove.NULL_MOVE ? PackedMove.NULL_MOVE :
+                this.counterMoves[PackedMove.getFrom(lastMove)][PackedMove.getTo(lastMove)];
+    }
+
+    int historyScore(final int side, final int move) {
+        return this.history[side][PackedMove.getFrom(move)][PackedMove.getTo(move)];
+    }
+
+    // Goi khi moves.get(cutIndex) gay cat beta; cac nuoc yen lang thu truoc no bi tru diem
+    void update(final BitBoard bitBoard, final MoveList moves, final int cutIndex, final int depth) {
+        final int move = moves.get(cutIndex);
+        if (!isQuiet(move)) {
+            return;
+        }
+        final int ply = bitBoard.getPly();
+        final int side = bitBoard.getSideToMove().ordinal();
+        if (ply < this.killers.length && this.killers[ply][0] != move) {
+            this.killers[ply][1] = this.killers[ply][0];
+            this.killers[ply][0] = move;
+        }
+        final int lastMove = bitBoard.getLastMove();
+        if (lastMove != PackedMove.NULL_MOVE) {
+            this.counterMoves[PackedMove.getFrom(lastMove)][PackedMove.getTo(lastMove)] = move;
+        }
+        final int bonus = depth * depth;
+        addHistory(side, move, bonus);
+        for (int i = 0; i < cutIndex; i++) {
+            if (isQuiet(moves.get(i))) {
+                addHistory(side, moves.get(i), -bonus);
+            }
+        }
+    }
+
+    private void addHistory(final int side, final int move, final int bonus) {
+        final int[] row = this.history[side][PackedMove.getFrom(move)];
+        final int to = PackedMove.getTo(move);
+        row[to] += bonus;
+        if (Math.abs(row[to]) >= MAX_HISTORY) {
+            ageHistory();
+        }
+    }
+}
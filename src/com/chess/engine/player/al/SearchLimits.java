@@ -0,0 +1,106 @@
+package com.chess.engine.player.al;
+
+public class SearchLimits {
+    // Gioi han cho mot lan tim nuoc: do sau toi da, thoi gian cho nuoc di, dong ho con lai (+ increment), so nut.
+    // Gia tri 0 nghia la khong gioi han theo tieu chi do.
+
+    public static final int MAX_DEPTH = 64;
+
+    private final int depth;
+    private final long moveTime;      // ms cho nuoc nay
+    private final long timeLeft;      // ms con lai tren dong ho cua ben di
+    private final long increment;     // ms cong them sau moi nuoc
+    private final int movesToGo;      // so nuoc den lan cong gio tiep theo, 0 neu khong biet
+    private final long nodes;
+
+    private SearchLimits(final Builder builder) {
+        this.depth = builder.depth;
+        this.moveTime = builder.moveTime;
+        this.timeLeft = builder.timeLeft;
+        this.increment = builder.increment;
+        this.movesToGo = builder.movesToGo;
+        this.nodes = builder.nodes;
+    }
+
+    public static SearchLimits depth(final int depth) {
+        return new Builder().setDepth(depth).build();
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public long getMoveTime() {
+        return this.moveTime;
+    }
+
+    public long getTimeLeft() {
+        return this.timeLeft;
+    }
+
+    public long getIncrement() {
+        return this.increment;
+    }
+
+    public int getMovesToGo() {
+        return this.movesToGo;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public boolean isTimed() {
+        return this.moveTime > 0 || this.timeLeft > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + this.depth + (this.moveTime > 0 ? " movetime " + this.moveTime : "") +
+                (this.timeLeft > 0 ? " time " + this.timeLeft + " inc " + this.increment : "") +
+                (this.nodes > 0 ? " nodes " + this.nodes : "");
+    }
+
+    public static class Builder {
+        int depth;
+        long moveTime;
+        long timeLeft;
+        long increment;
+        int movesToGo;
+        long nodes;
+
+        public Builder() {
+            this.depth = MAX_DEPTH;
+        }
+
+        public Builder setDepth(final int depth) {
+            this.depth = Math.max(1, Math.min(depth, MAX_DEPTH));
+            return this;
+        }
+
+        public Builder setMoveTime(final long moveTime) {
+            this.moveTime = moveTime;
+            return this;
+        }
+
+        public Builder setTimeLeft(final long timeLeft, final long increment) {
+            this.timeLeft = timeLeft;
+            this.increment = increment;
+            return this;
+        }
+
+        public Builder setMovesToGo(final int movesToGo) {
+            this.movesToGo = movesToGo;
+            return this;
+        }
+
+        public Builder setNodes(final long nodes) {
+            this.nodes = nodes;
+            return this;
+        }
+
+        public SearchLimits build() {
+            return new SearchLimits(this);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.chess.engine.player.al;
+
+import com.chess.engine.pieces.Piece;
+
+public class SearchParameters {
+    // Cac ky thuat cat tia/giam do sau cua MiniMax va nguong cua chung, bat tat duoc de so sanh (TacticalBenchmark).
+    // Bien do (margin) tinh theo thang diem cua StandardBoardEvaluator, nhan voi so tang con lai.
+
+    private static final int PAWN_VALUE = Piece.PieceType.PAWN.mgPieceValue * StandardBoardEvaluator.PIECE_WEIGHT;
+
+    public static final SearchParameters DEFAULT = new Builder().build();
+
+    private final boolean nullMovePruning;
+    private final boolean lateMoveReductions;
+    private final int lmrMinDepth;            // chi giam o nut con it nhat tu do sau nay
+    private final int lmrMinMoveNumber;       // so nuoc dau tien (theo thu tu MovePicker) khong bao gio bi giam
+    private final boolean futilityPruning;
+    private final int futilityDepth;          // nut sat la: do sau con lai <= futilityDepth
+    private final int futilityMargin;         // moi tang con lai
+    private final boolean reverseFutilityPruning;
+    private final int reverseFutilityDepth;
+    private final int reverseFutilityMargin;  // moi tang con lai
+    private final boolean razoring;
+    private final int razorDepth;
+    private final int razorMargin;            // moi tang con lai
+    private final boolean probCut;
+    private final int probCutDepth;           // chi thu o nut con it nhat tu do sau nay
+    private final int probCutMargin;          // nuoc an phai vuot beta them khoang nay o tim kiem nong
+    private final int probCutReduction;       // tim kiem nong hon tim kiem day du bao nhieu tang
+    private final ExtensionPolicy extensionPolicy;
+    private final int evaluationNoise;        // nhieu danh gia toi da (+/-), thay cho chon ngau nhien nuoc bang diem
+    private final boolean fixedSeed;          // co seed thi ket qua lap lai duoc, khong thi moi lan tim mot seed moi
+    private final long randomSeed;
+    private final boolean verbose;            // in tung vong lap sau dan, thong ke cat tia va tong so nut cac luong
+
+    private SearchParameters(final Builder builder) {
+        this.nullMovePruning = builder.nullMovePruning;
+        this.lateMoveReductions = builder.lateMoveReductions;
+        this.lmrMinDepth = builder.lmrMinDepth;
+        this.lmrMinMoveNumber = builder.lmrMinMoveNumber;
+        this.futilityPruning = builder.futilityPruning;
+        this.futilityDepth = builder.futilityDepth;
+        this.futilityMargin = builder.futilityMargin;
+        this.reverseFutilityPruning = builder.reverseFutilityPruning;
+        this.reverseFutilityDepth = builder.reverseFutilityDepth;
+        this.reverseFutilityMargin = builder.reverseFutilityMargin;
+        this.razoring = builder.razoring;
+        this.razorDepth = builder.razorDepth;
+        this.razorMargin = builder.razorMargin;
+        this.probCut = builder.probCut;
+        this.probCutDepth = builder.probCutDepth;
+        this.probCutMargin = builder.probCutMargin;
+        this.probCutReduction = builder.probCutReduction;
+        this.extensionPolicy = builder.extensionPolicy;
+        this.evaluationNoise = builder.evaluationNoise;
+        this.fixedSeed = builder.fixedSeed;
+        this.randomSeed = builder.randomSeed;
+        this.verbose = builder.verbose;
+    }
+
+    public boolean isNullMovePruning() {
+        return this.nullMovePruning;
+    }
+
+    public boolean isLateMoveReductions() {
+        return this.lateMoveReductions;
+    }
+
+    public int getLmrMinDepth() {
+        return this.lmrMinDepth;
+    }
+
+    public int getLmrMinMoveNumber() {
+        return this.lmrMinMoveNumber;
+    }
+
+    public boolean isFutilityPruning() {
+        return this.futilityPruning;
+    }
+
+    public int getFutilityDepth() {
+        return this.futilityDepth;
+    }
+
+    public int getFutilityMargin() {
+        return this.futilityMargin;
+    }
+
+    public boolean isReverseFutilityPruning() {
+        return this.reverseFutilityPruning;
+    }
+
+    public int getReverseFutilityDepth() {
+        return this.reverseFutilityDepth;
+    }
+
+    public int getReverseFutilityMargin() {
+        return this.reverseFutilityMargin;
+    }
+
+    public boolean isRazoring() {
+        return this.razoring;
+    }
+
+    public int getRazorDepth() {
+        return this.razorDepth;
+    }
+
+    public int getRazorMargin() {
+        return this.razorMargin;
+    }
+
+    public boolean isProbCut() {
+        return this.probCut;
+    }
+
+    public int getProbCutDepth() {
+        return this.probCutDepth;
+    }
+
+    public int getProbCutMargin() {
+        return this.probCutMargin;
+    }
+
+    public int getProbCutReduction() {
+        return this.probCutReduction;
+    }
+
+    public ExtensionPolicy getExtensionPolicy() {
+        return this.extensionPolicy;
+    }
+
+    public int getEvaluationNoise() {
+        return this.evaluationNoise;
+    }
+
+    public boolean hasRandomSeed() {
+        return this.fixedSeed;
+    }
+
+    public long getRandomSeed() {
+        return this.randomSeed;
+    }
+
+    public boolean isVerbose() {
+        return this.verbose;
+    }
+
+    @Override
+    public String toString() {
+        return "null move " + (this.nullMovePruning ? "on" : "off") +
+                " lmr " + (this.lateMoveReductions ? "depth>=" + this.lmrMinDepth + " move>=" + this.lmrMinMoveNumber : "off") +
+                " futility " + (this.futilityPruning ? "depth<=" + this.futilityDepth + " margin " + this.futilityMargin : "off") +
+                " reverse futility " + (this.reverseFutilityPruning ?
+                "depth<=" + this.reverseFutilityDepth + " margin " + this.reverseFutilityMargin : "off") +
+                " razoring " + (this.razoring ? "depth<=" + this.razorDepth + " margin " + this.razorMargin : "off") +
+                " probcut " + (this.probCut ? "depth>=" + this.probCutDepth + " margin " + this.probCutMargin +
+                " reduction " + this.probCutReduction : "off") + " extensions " + this.extensionPolicy +
+                " noise " + this.evaluationNoise + (this.fixedSeed ? " seed " + this.randomSeed : "");
+    }
+
+    public static class Builder {
+        boolean nullMovePruning;
+        boolean lateMoveReductions;
+        int lmrMinDepth;
+        int lmrMinMoveNumber;
+        boolean futilityPruning;
+        int futilityDepth;
+        int futilityMargin;
+        boolean reverseFutilityPruning;
+        int reverseFutilityDepth;
+        int reverseFutilityMargin;
+        boolean razoring;
+        int razorDepth;
+        int razorMargin;
+        boolean probCut;
+        int probCutDepth;
+        int probCutMargin;
+        int probCutReduction;
+        ExtensionPolicy extensionPolicy;
+        int evaluationNoise;
+        boolean fixedSeed;
+        long randomSeed;
+        boolean verbose;
+
+        public Builder() {
+            this.nullMovePruning = true;
+            this.lateMoveReductions = true;
+            this.lmrMinDepth = 3;
+            this.lmrMinMoveNumber = 3;
+            this.futilityPruning = true;
+            this.futilityDepth = 2;
+            this.futilityMargin = PAWN_VALUE * 3 / 2;
+            this.reverseFutilityPruning = true;
+            this.reverseFutilityDepth = 3;
+            this.reverseFutilityMargin = PAWN_VALUE * 3 / 2;
+            // Razoring tat mac dinh: bo qua nuoc chieu yen lang nen mat nuoc chien thuat (xem TacticalBenchmark)
+            this.razoring = false;
+            this.razorDepth = 1;
+            this.razorMargin = PAWN_VALUE * 3;
+            this.probCut = true;
+            this.probCutDepth = 5;
+            this.probCutMargin = PAWN_VALUE;
+            this.probCutReduction = 3;
+            this.extensionPolicy = new StandardExtensionPolicy.Builder().build();
+            // Khoang 1/16 tot: du de doi nuoc giua cac nuoc gan bang diem, khong du de chon nuoc kem that su
+            this.evaluationNoise = PAWN_VALUE / 16;
+            this.fixedSeed = false;
+            // Mac dinh chi in THINKING/MOVE nhu truoc, GUI va benchmark tu in phan minh can
+            this.verbose = false;
+        }
+
+        public Builder setNullMovePruning(final boolean nullMovePruning) {
+            this.nullMovePruning = nullMovePruning;
+            return this;
+        }
+
+        public Builder setLateMoveReductions(final boolean lateMoveReductions) {
+            this.lateMoveReductions = lateMoveReductions;
+            return this;
+        }
+
+        public Builder setLmrMinDepth(final int lmrMinDepth) {
+            this.lmrMinDepth = Math.max(2, lmrMinDepth);
+            return this;
+        }
+
+        public Builder setLmrMinMoveNumber(final int lmrMinMoveNumber) {
+            this.lmrMinMoveNumber = Math.max(1, lmrMinMoveNumber);
+            return this;
+        }
+
+        public Builder setFutilityPruning(final boolean futilityPruning) {
+            this.futilityPruning = futilityPruning;
+            return this;
+        }
+
+        public Builder setFutilityDepth(final int futilityDepth) {
+            this.futilityDepth = futilityDepth;
+            return this;
+        }
+
+        public Builder setFutilityMargin(final int futilityMargin) {
+            this.futilityMargin = futilityMargin;
+            return this;
+        }
+
+        public Builder setReverseFutilityPruning(final boolean reverseFutilityPruning) {
+            this.reverseFutilityPruning = reverseFutilityPruning;
+            return this;
+        }
+
+        public Builder setReverseFutilityDepth(final int reverseFutilityDepth) {
+            this.reverseFutilityDepth = reverseFutilityDepth;
+            return this;
+        }
+
+        public Builder setReverseFutilityMargin(final int reverseFutilityMargin) {
+            this.reverseFutilityMargin = reverseFutilityMargin;
+            return this;
+        }
+
+        public Builder setRazoring(final boolean razoring) {
+            this.razoring = razoring;
+            return this;
+        }
+
+        public Builder setRazorDepth(final int razorDepth) {
+            this.razorDepth = razorDepth;
+            return this;
+        }
+
+        public Builder setRazorMargin(final int razorMargin) {
+            this.razorMargin = razorMargin;
+            return this;
+        }
+
+        public Builder setProbCut(final boolean probCut) {
+            this.probCut = probCut;
+            return this;
+        }
+
+        public Builder setProbCutDepth(final int probCutDepth) {
+            this.probCutDepth = probCutDepth;
+            return this;
+        }
+
+        public Builder setProbCutMargin(final int probCutMargin) {
+            this.probCutMargin = probCutMargin;
+            return this;
+        }
+
+        // Nut con cua ProbCut con it nhat 1 tang
+        public Builder setProbCutReduction(final int probCutReduction) {
+            this.probCutReduction = Math.max(1, probCutReduction);
+            return this;
+        }
+
+        public Builder setExtensionPolicy(final ExtensionPolicy extensionPolicy) {
+            this.extensionPolicy = extensionPolicy;
+            return this;
+        }
+
+        public Builder setEvaluationNoise(final int evaluationNoise) {
+            this.evaluationNoise = Math.max(0, evaluationNoise);
+            return this;
+        }
+
+        public Builder setRandomSeed(final long randomSeed) {
+            this.fixedSeed = true;
+            this.randomSeed = randomSeed;
+            return this;
+        }
+
+        public Builder setVerbose(final boolean verbose) {
+            this.verbose = verbose;
+            return this;
+        }
+
+        // Tat ca cac ky thuat cat tia tren deu tat: cay alpha-beta day du (van giu ExtensionPolicy), dung de so sanh
+        public Builder disableAll() {
+            this.nullMovePruning = false;
+            this.lateMoveReductions = false;
+            this.futilityPruning = false;
+            this.reverseFutilityPruning = false;
+            this.razoring = false;
+            this.probCut = false;
+            return this;
+        }
+
+        public SearchParameters build() {
+            return new SearchParameters(this);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.chess.engine.player.al;
+
+public class SearchStatistics {
+    // Dem so lan moi ky thuat trong SearchParameters co tac dung trong mot lan tim nuoc.
+    // Moi MiniMax (ke ca luong con) dem rieng, luong chinh cong lai khi cac luong con xong nhu so nut.
+
+    long nullMoveTries;
+    long nullMoveCutoffs;
+    long reductions;          // nuoc bi giam do sau (LMR)
+    long reSearches;          // nuoc bi giam nhung vuot alpha/beta nen tim lai du do sau
+    long futilityPruned;      // nuoc yen lang bo qua o nut sat la
+    long reverseFutilityPruned;   // nut cat ngay bang danh gia tinh
+    long razored;             // nut sat la tra ve ngay ket qua tim kiem tinh lang
+    long probCutTries;
+    long probCutCutoffs;
+    long extensions;          // nuoc chieu/an lai duoc keo dai (ExtensionPolicy)
+    long singularExtensions;
+
+    void reset() {
+        this.nullMoveTries = 0;
+        this.nullMoveCutoffs = 0;
+        this.reductions = 0;
+        this.reSearches = 0;
+        this.futilityPruned = 0;
+        this.reverseFutilityPruned = 0;
+        this.razored = 0;
+        this.probCutTries = 0;
+        this.probCutCutoffs = 0;
+        this.extensions = 0;
+        this.singularExtensions = 0;
+    }
+
+    void add(final SearchStatistics other) {
+        this.nullMoveTries += other.nullMoveTries;
+        this.nullMoveCutoffs += other.nullMoveCutoffs;
+        this.reductions += other.reductions;
+        this.reSearches += other.reSearches;
+        this.futilityPruned += other.futilityPruned;
+        this.reverseFutilityPruned += other.reverseFutilityPruned;
+        this.razored += other.razored;
+        this.probCutTries += other.probCutTries;
+        this.probCutCutoffs += other.probCutCutoffs;
+        this.extensions += other.extensions;
+        this.singularExtensions += other.singularExtensions;
+    }
+
+    public long getNullMoveTries() {
+        return this.nullMoveTries;
+    }
+
+    public long getNullMoveCutoffs() {
+        return this.nullMoveCutoffs;
+    }
+
+    public long getReductions() {
+        return this.reductions;
+    }
+
+    public long getReSearches() {
+        return this.reSearches;
+    }
+
+    public long getFutilityPruned() {
+        return this.futilityPruned;
+    }
+
+    public long getReverseFutilityPruned() {
+        return this.reverseFutilityPruned;
+    }
+
+    public long getRazored() {
+        return this.razored;
+    }
+
+    public long getProbCutTries() {
+        return this.probCutTries;
+    }
+
+    public long getProbCutCutoffs() {
+        return this.probCutCutoffs;
+    }
+
+    public long getExtensions() {
+        return this.extensions;
+    }
+
+    public long getSingularExtensions() {
+        return this.singularExtensions;
+    }
+
+    @Override
+    public String toString() {
+        return "null move " + this.nullMoveCutoffs + "/" + this.nullMoveTries +
+                " lmr " + this.reductions + " re-search " + this.reSearches +
+                " futility " + this.futilityPruned + " reverse futility " + this.reverseFutilityPruned +
+                " razoring " + this.razored + " probcut " + this.probCutCutoffs + "/" + this.probCutTries +
+                " extensions " + this.extensions + " singular " + this.singularExtensions;
+    }
+}
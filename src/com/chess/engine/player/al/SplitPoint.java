@@ -0,0 +1,94 @@
+package com.chess.engine.player.al;
+
+final class SplitPoint {
+    // Nut duoc chia cho nhieu luong (Young Brothers Wait): con dau tien da tim xong, cac con con lai tim song song
+    // va dung chung alpha/beta, diem tot nhat cua nut nay. Khi mot con gay cat thi cac con khac (va moi nut chia
+    // ben duoi chung) dung lai.
+
+    private final SplitPoint parent;
+    private final boolean maximizing;
+    private int alpha;
+    private int beta;
+    private int bestValue;
+    private int bestMove;
+    private int bestMoveNumber;         // vi tri cua bestMove trong MoveList cua nut chia
+    private int[] bestLine;             // bien chinh sau bestMove neu bestMove do luong con tim ra
+    private volatile boolean cutoff;
+    private volatile boolean aborted;   // mot con dung vi het gio/het so nut, ket qua cua ca nut khong dung duoc
+
+    SplitPoint(final SplitPoint parent, final boolean maximizing, final int alpha, final int beta,
+               final int bestValue, final int bestMove) {
+        this.parent = parent;
+        this.maximizing = maximizing;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.bestValue = bestValue;
+        this.bestMove = bestMove;
+    }
+
+    boolean isMaximizing() {
+        return this.maximizing;
+    }
+
+    synchronized int getAlpha() {
+        return this.alpha;
+    }
+
+    synchronized int getBeta() {
+        return this.beta;
+    }
+
+    synchronized int getBestValue() {
+        return this.bestValue;
+    }
+
+    synchronized int getBestMove() {
+        return this.bestMove;
+    }
+
+    synchronized int getBestMoveNumber() {
+        return this.bestMoveNumber;
+    }
+
+    synchronized int[] getBestLine() {
+        return this.bestLine;
+    }
+
+    // Giong vong lap trong max()/min(): cap nhat diem tot nhat, danh dau cat hoac thu hep cua so. Hai nuoc bang diem
+    // thi nuoc dung sau trong MoveList thang nhu khi tim tuan tu, khong phu thuoc luong nao xong truoc
+    synchronized void update(final int value, final int move, final int moveNumber, final int[] line) {
+        if (this.cutoff) {
+            return;
+        }
+        if (this.maximizing ? isBetter(value, this.bestValue, moveNumber) : isBetter(this.bestValue, value, moveNumber)) {
+            this.bestValue = value;
+            this.bestMove = move;
+            this.bestMoveNumber = moveNumber;
+            this.bestLine = line;
+        }
+        if (this.maximizing) {
+            if (this.bestValue >= this.beta)    this.cutoff = true;
+            if (this.alpha <= this.bestValue)   this.alpha = this.bestValue;
+        } else {
+            if (this.bestValue <= this.alpha)   this.cutoff = true;
+            if (this.beta >= this.bestValue)    this.beta = this.bestValue;
+        }
+    }
+
+    private boolean isBetter(final int higher, final int lower, final int moveNumber) {
+        return higher > lower || (higher == lower && moveNumber > this.bestMoveNumber);
+    }
+
+    // Nut nay hoac mot nut chia phia tren da cat thi khong can tim tiep
+    boolean isCutoff() {
+        return this.cutoff || (this.parent != null && this.parent.isCutoff());
+    }
+
+    boolean isAborted() {
+        return this.aborted;
+    }
+
+    void abort() {
+        this.aborted = true;
+    }
+}
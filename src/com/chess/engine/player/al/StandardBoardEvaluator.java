@@ -1,7 +1,8 @@
 package com.chess.engine.player.al;
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.BitboardUtils;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.Move;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.Player;
 
@@ -11,169 +12,188 @@ import java.util.*;
 public class StandardBoardEvaluator implements BoardEvaluator {
     private static final int UNSAFE_CHECK_BONUS = 100;
     private static final int CHECK_MATE_BONUS = 120000;
+    // Diem tuyet doi tu nguong nay tro len chi co the la diem chieu het: vat chat va vi tri khong bao gio toi
+    static final int MATE_THRESHOLD = CHECK_MATE_BONUS / 2;
     private static final int DEPTH_BONUS = 100;
     private static final int CASTLE_BONUS = 500;
-    private static final int PIECE_WEIGHT = 3;
+    static final int PIECE_WEIGHT = 3;
     private static final int MOBILITY_WEIGHT = 3;
     private static final int PAWN_STRUCTURE_WEIGHT = 3;
     private static final int ENDING_PRINCIPLE_WEIGHT = 2;
 
+    private static final int[] KNIGHT_MOBILITY_MG = {-20, -16, -5, -1, 1, 3, 7, 10, 12};
+    private static final int[] KNIGHT_MOBILITY_EG = {-23, -17, -10, -5, 2, 3, 5, 7, 9};
+    private static final int[] BISHOP_MOBILITY_MG = {-15, -5, 4, 8, 11, 15, 15, 17, 18, 20, 22, 23, 25, 27};
+    private static final int[] BISHOP_MOBILITY_EG = {-20, -10, -5, 5, 7, 13, 18, 18, 20, 23, 25, 27, 30, 32};
+    private static final int[] ROOK_MOBILITY_MG = {-20, -10, 0, 1, 1, 5, 7, 10, 13, 13, 13, 15, 20, 20, 23};
+    private static final int[] ROOK_MOBILITY_EG = {-30, -10, 5, 15, 25, 33, 33, 40, 43, 45, 50, 53, 55, 57, 60};
+    private static final int[] QUEEN_MOBILITY_MG = {-10, -5, -3, -3, 8, 10, 10, 10, 12, 13, 26, 18, 20, 20, 20, 20, 20, 20, 20, 25, 25, 30, 33, 35, 35, 35, 35, 38};
+    private static final int[] QUEEN_MOBILITY_EG = {-17, -10, -5, 5, 13, 18, 20, 25, 25, 30, 30, 33, 40, 43, 45, 45, 45, 45, 47, 50, 50, 50, 55, 55, 57, 60, 60, 73};
+
+    private static final int[] PASSED_PAWN_MG = {5, 15, 25, 65, 165, 285};
+    private static final int[] PASSED_PAWN_EG = {40, 55, 75, 115, Piece.PieceType.PAWN.egPieceValue, Piece.PieceType.PAWN.egPieceValue * 2};
+
     @Override
     public int evaluate(final  Board board,
                         final int depth) {
         //        System.out.println("Evaluate: " + evaluate);
-        return scorePlayer(board, board.whitePlayer(), depth) - scorePlayer(board, board.blackPlayer(), depth);
+        final BitBoard bitBoard = board.getBitBoard();
+        final boolean midGame = isMidGame(bitBoard);
+        return scorePlayer(bitBoard, Alliance.WHITE, midGame) + checkmate(board.whitePlayer(), depth) -
+               scorePlayer(bitBoard, Alliance.BLACK, midGame) - checkmate(board.blackPlayer(), depth);
+    }
+
+    @Override
+    public int evaluate(final BitBoard bitBoard,
+                        final int depth) {
+        final boolean midGame = isMidGame(bitBoard);
+        return scorePlayer(bitBoard, Alliance.WHITE, midGame) + checkmate(bitBoard, Alliance.WHITE, depth) -
+               scorePlayer(bitBoard, Alliance.BLACK, midGame) - checkmate(bitBoard, Alliance.BLACK, depth);
     }
 
-    private int scorePlayer(final  Board board,
-                            final Player player,
-                            final int depth) {
-        int score = pieceValue(player, board) * PIECE_WEIGHT + mobility(player, board) * MOBILITY_WEIGHT +
-                check(player, board) + checkmate(player, depth)
-                + castled(player) + positionValue(player, board) + openingPrincipleBonus(player) +
-                pawnStructureBonus(player, board) * PAWN_STRUCTURE_WEIGHT + endingPrincipleBonus(player, board) *  ENDING_PRINCIPLE_WEIGHT
-                + triviaBonus(player, board);
-//        System.out.println("White player: ");
-//        System.out.println("pieceValue: " + pieceValue(board.whitePlayer(), board) + ", mobility: " + mobility(board.whitePlayer(),board) * 3
-//        + ", positionValue: " + positionValue(board.whitePlayer(), board) + ", OPV: " + openingPrincipleBonus(board.whitePlayer())
-//        + ", PSV: " + pawnStructureBonus(board.whitePlayer(), board) + ", castle: " + castled(board.whitePlayer()));
-//        System.out.println("Black player: ");
-//        System.out.println("pieceValue: " + pieceValue(board.blackPlayer(), board) + ", mobility: " + mobility(board.blackPlayer(),board) * 3
-//                + ", positionValue: " + positionValue(board.blackPlayer(), board) + ", OPV: " + openingPrincipleBonus(board.blackPlayer())
-//                + ", PSV: " + pawnStructureBonus(board.blackPlayer(), board) + ", castle: " + castled(board.blackPlayer()));
-//        System.out.println("Total: " + score);
-//        System.out.println();
+    private int scorePlayer(final BitBoard bitBoard,
+                            final Alliance alliance,
+                            final boolean midGame) {
+        int score = pieceValue(bitBoard, alliance, midGame) * PIECE_WEIGHT + mobility(bitBoard, alliance, midGame) * MOBILITY_WEIGHT +
+                check(bitBoard, alliance)
+                + castled(bitBoard, alliance) + positionValue(bitBoard, alliance, midGame) + openingPrincipleBonus(bitBoard, alliance) +
+                pawnStructureBonus(bitBoard, alliance, midGame) * PAWN_STRUCTURE_WEIGHT + endingPrincipleBonus(bitBoard, alliance, midGame) *  ENDING_PRINCIPLE_WEIGHT
+                + triviaBonus(bitBoard, alliance, midGame);
         return score;
     }
 
-    private static int castled (Player player) {
-        return player.isCastled() ? CASTLE_BONUS : 0;
+    private static int castled (final BitBoard bitBoard, final Alliance alliance) {
+        return bitBoard.isCastled(alliance) ? CASTLE_BONUS : 0;
     }
 
     private static int checkmate(Player player, int depth) {
         return player.getOpponent().isInCheckmate() ? CHECK_MATE_BONUS * depthBonus(depth):0;
     }
 
+    // Chi ben dang di moi co the bi chieu het; chi sinh nuoc di khi dang bi chieu
+    private static int checkmate(final BitBoard bitBoard, final Alliance alliance, final int depth) {
+        final Alliance opponent = alliance.opposite();
+        final boolean opponentMated = bitBoard.getSideToMove() == opponent && bitBoard.isInCheck(opponent) &&
+                !bitBoard.hasLegalMove();
+        return opponentMated ? CHECK_MATE_BONUS * depthBonus(depth) : 0;
+    }
+
     private static int depthBonus(int depth) {
         return depth ==  0 ? 1 : DEPTH_BONUS * depth;
     }
-    private static int check( final Player player, Board board) {
+    private static int check(final BitBoard bitBoard, final Alliance alliance) {
         int checkBonus = 0;
-        if (player.getOpponent().isInCheck()) {
-            for (Piece piece: player.getActivePieces()) {
-                for (Move move: piece.calculateLegalMove(board)) {
-                    if (move.getDestinationCoordinate() == player.getOpponent().getPlayerKing().getPiecePosition()) {
-                        for (Move move1: player.getOpponent().getLegalMoves()) {
-                            if (move1.getDestinationCoordinate() == piece.getPiecePosition()) { //Unsafe check
-                                checkBonus += UNSAFE_CHECK_BONUS;
-                                break;
-                            }
-                        }
-                        //Safe check
-                        if (piece.getPieceType() == Piece.PieceType.KNIGHT) checkBonus += 800;
-                        else if (piece.getPieceType() == Piece.PieceType.BISHOP) checkBonus += 650;
-                        else if (piece.getPieceType() == Piece.PieceType.ROOK) checkBonus += 1070;
-                        else if (piece.getPieceType() == Piece.PieceType.QUEEN) checkBonus += 730;
-                    }
-                }
+        final Alliance opponent = alliance.opposite();
+        //các quân đang chiếu vua đối phương
+        long checkers = bitBoard.attackersTo(bitBoard.getKingSquare(opponent), alliance);
+        while (checkers != 0) {
+            final int checkerSquare = Long.numberOfTrailingZeros(checkers);
+            checkers &= checkers - 1;
+            if (bitBoard.exchangeValue(checkerSquare, opponent) > 0) { //Unsafe check: doi phuong an quan chieu ma khong lo
+                checkBonus += UNSAFE_CHECK_BONUS;
             }
+            //Safe check
+            final Piece.PieceType checkerType = bitBoard.getPieceTypeAt(checkerSquare);
+            if (checkerType == Piece.PieceType.KNIGHT) checkBonus += 800;
+            else if (checkerType == Piece.PieceType.BISHOP) checkBonus += 650;
+            else if (checkerType == Piece.PieceType.ROOK) checkBonus += 1070;
+            else if (checkerType == Piece.PieceType.QUEEN) checkBonus += 730;
         }
         return  checkBonus;
     }
 
-    private static int mobility( final Player player, final Board board) {
-        int mobilityBonus = 0;
-        int numMoves;
-        int[] knightMobilMG = {-20, -16, -5, -1, 1, 3, 7, 10, 12};
-        int[] knightMobilEG = {-23, -17, -10, -5, 2, 3, 5, 7, 9};
-        int[] bishopMobilMG = {-15, -5, 4, 8, 11, 15, 15, 17, 18, 20, 22, 23, 25, 27};
-        int[] bishopMobilEG = {-20, -10, -5, 5, 7, 13, 18, 18, 20, 23, 25, 27, 30, 32};
-        int[] rookMobilMG = {-20, -10, 0, 1, 1, 5, 7, 10, 13, 13, 13, 15, 20, 20, 23};
-        int[] rookMobilEG = {-30, -10, 5, 15, 25, 33, 33, 40, 43, 45, 50, 53, 55, 57, 60};
-        int[] queenMobilMG = {-10, -5, -3, -3, 8, 10, 10, 10, 12, 13, 26, 18, 20, 20, 20, 20, 20, 20, 20, 25, 25, 30, 33, 35, 35, 35, 35, 38};
-        int[] queenMobilEG = {-17, -10, -5, 5, 13, 18, 20, 25, 25, 30, 30, 33, 40, 43, 45, 45, 45, 45, 47, 50, 50, 50, 55, 55, 57, 60, 60, 73};
-        for (Piece piece: player.getActivePieces()) {
-            numMoves = piece.calculateLegalMove(board).size();
-            Piece.PieceType movePieceType = piece.getPieceType();
-            if (isMidGame(board)) {
-                if (movePieceType == Piece.PieceType.PAWN) {
-                    mobilityBonus += numMoves;
-                }
-                else if (movePieceType == Piece.PieceType.KNIGHT) {
-                    mobilityBonus += knightMobilMG[numMoves];
-                }
-                else if (movePieceType == Piece.PieceType.BISHOP) {
-                    mobilityBonus += bishopMobilMG[numMoves];
-                }
-                else if (movePieceType == Piece.PieceType.ROOK) {
-                    mobilityBonus += rookMobilMG[numMoves];
-                }
-                else if (movePieceType == Piece.PieceType.QUEEN) {
-                    mobilityBonus += queenMobilMG[numMoves];
-                }
-            }
-            else {
-                if (movePieceType == Piece.PieceType.PAWN) {
-                    mobilityBonus += numMoves;
-                }
-                else if (movePieceType == Piece.PieceType.KNIGHT) {
-                    mobilityBonus += knightMobilEG[numMoves];
-                }
-                else if (movePieceType == Piece.PieceType.BISHOP) {
-                    mobilityBonus += bishopMobilEG[numMoves];
-                }
-                else if (movePieceType == Piece.PieceType.ROOK) {
-                    mobilityBonus += rookMobilEG[numMoves];
-                }
-                else if (movePieceType == Piece.PieceType.QUEEN) {
-                    mobilityBonus += queenMobilEG[numMoves];
-                }
-            }
+    private static int mobility(final BitBoard bitBoard, final Alliance alliance, final boolean midGame) {
+        final long notOwnPieces = ~bitBoard.getOccupancy(alliance);
+        final long occupancy = bitBoard.getOccupancy();
+        int mobilityBonus = pawnMoveCount(bitBoard, alliance);
+        long knights = bitBoard.getPieces(alliance, Piece.PieceType.KNIGHT);
+        while (knights != 0) {
+            final int square = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            final int numMoves = Long.bitCount(BitboardUtils.KNIGHT_ATTACKS[square] & notOwnPieces);
+            mobilityBonus += midGame ? KNIGHT_MOBILITY_MG[numMoves] : KNIGHT_MOBILITY_EG[numMoves];
+        }
+        long bishops = bitBoard.getPieces(alliance, Piece.PieceType.BISHOP);
+        while (bishops != 0) {
+            final int square = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            final int numMoves = Long.bitCount(BitboardUtils.bishopAttacks(square, occupancy) & notOwnPieces);
+            mobilityBonus += midGame ? BISHOP_MOBILITY_MG[numMoves] : BISHOP_MOBILITY_EG[numMoves];
+        }
+        long rooks = bitBoard.getPieces(alliance, Piece.PieceType.ROOK);
+        while (rooks != 0) {
+            final int square = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            final int numMoves = Long.bitCount(BitboardUtils.rookAttacks(square, occupancy) & notOwnPieces);
+            mobilityBonus += midGame ? ROOK_MOBILITY_MG[numMoves] : ROOK_MOBILITY_EG[numMoves];
+        }
+        long queens = bitBoard.getPieces(alliance, Piece.PieceType.QUEEN);
+        while (queens != 0) {
+            final int square = Long.numberOfTrailingZeros(queens);
+            queens &= queens - 1;
+            final int numMoves = Long.bitCount(BitboardUtils.queenAttacks(square, occupancy) & notOwnPieces);
+            mobilityBonus += midGame ? QUEEN_MOBILITY_MG[numMoves] : QUEEN_MOBILITY_EG[numMoves];
         }
         return mobilityBonus;
     }
 
-    private static int pieceValue(final Player player, final Board board){
-        int pieceValueScore = 0;
-        int numBishop = 0;
-        for (final Piece piece: player.getActivePieces()) {
-
-            if (piece.getPieceType() != Piece.PieceType.KING) {
-                if (isMidGame(board)) {
-                    pieceValueScore += piece.getPieceType().mgPieceValue;
-                }
-                else {
-                    pieceValueScore += piece.getPieceType().egPieceValue;
-                }
+    // Số nước đi của tất cả quân tốt (mỗi nước phong cấp tính là 4 nước như Pawn.calculateLegalMove)
+    private static int pawnMoveCount(final BitBoard bitBoard, final Alliance alliance) {
+        final long pawns = bitBoard.getPieces(alliance, Piece.PieceType.PAWN);
+        final long empty = ~bitBoard.getOccupancy();
+        final long promotionRow = alliance.isWhite() ? BitboardUtils.ROWS[0] : BitboardUtils.ROWS[7];
+        final long startRow = alliance.isWhite() ? BitboardUtils.ROWS[6] : BitboardUtils.ROWS[1];
+        final long singlePushes = advance(pawns, alliance) & empty;
+        final long doublePushes = advance(advance(pawns & startRow & bitBoard.getUnmovedPieces(), alliance) & empty, alliance) & empty;
+        int numMoves = Long.bitCount(singlePushes & ~promotionRow) + 4 * Long.bitCount(singlePushes & promotionRow) +
+                Long.bitCount(doublePushes);
+        final long enemyPieces = bitBoard.getOccupancy(alliance.opposite());
+        final int enPassantSquare = bitBoard.getSideToMove() == alliance ? bitBoard.getEnPassantSquare() : BitBoard.NO_SQUARE;
+        long remainingPawns = pawns;
+        while (remainingPawns != 0) {
+            final int square = Long.numberOfTrailingZeros(remainingPawns);
+            remainingPawns &= remainingPawns - 1;
+            final long attacks = BitboardUtils.PAWN_ATTACKS[alliance.ordinal()][square];
+            numMoves += Long.bitCount(attacks & enemyPieces & ~promotionRow) + 4 * Long.bitCount(attacks & enemyPieces & promotionRow);
+            if (enPassantSquare != BitBoard.NO_SQUARE && BitboardUtils.isSet(attacks, enPassantSquare)) {
+                numMoves++;
             }
-            if (piece.getPieceType() == Piece.PieceType.BISHOP) {
-                numBishop++;
+        }
+        return numMoves;
+    }
+
+    private static long advance(final long pawns, final Alliance alliance) {
+        return alliance.isWhite() ? pawns >>> 8 : pawns << 8;
+    }
+
+    private static int pieceValue(final BitBoard bitBoard, final Alliance alliance, final boolean midGame){
+        int pieceValueScore = 0;
+        for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+            if (pieceType != Piece.PieceType.KING) {
+                final int numPieces = Long.bitCount(bitBoard.getPieces(alliance, pieceType));
+                pieceValueScore += numPieces * (midGame ? pieceType.mgPieceValue : pieceType.egPieceValue);
             }
         }
 //        if (isOpenGame()) {
 //            pieceValueScore = pieceValueScore * 3 / 2;
 //        }
-        if (numBishop == 2) {
-            if (isMidGame(board))   pieceValueScore += 150;
-            else                    pieceValueScore += 300;
+        if (Long.bitCount(bitBoard.getPieces(alliance, Piece.PieceType.BISHOP)) == 2) {
+            if (midGame)   pieceValueScore += 150;
+            else           pieceValueScore += 300;
         }
         return pieceValueScore;
     }
-    private static int positionValue(final Player player, final Board board) {
+    private static int positionValue(final BitBoard bitBoard, final Alliance alliance, final boolean midGame) {
         int positionValueScore = 0;
-        for (final Piece piece: player.getActivePieces()) {
-            if (player.getAlliance() == Alliance.BLACK) {
-                if (isMidGame(board)) {
-                    positionValueScore += piece.getPieceType().mgValueTable[piece.getPiecePosition()];
-                } else {
-                    positionValueScore += piece.getPieceType().egValueTable[piece.getPiecePosition()];
-                }
-            } else if (player.getAlliance() == Alliance.WHITE) {
-                if (isMidGame(board)) {
-                    positionValueScore += piece.getPieceType().mgValueTable[piece.getPiecePosition() ^ 56];
-                } else {
-                    positionValueScore += piece.getPieceType().egValueTable[piece.getPiecePosition() ^ 56];
-                }
+        // bảng điểm vị trí được viết theo góc nhìn bên đen, bên trắng lật ngược hàng (^ 56)
+        final int flip = alliance == Alliance.WHITE ? 56 : 0;
+        for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+            final int[] valueTable = midGame ? pieceType.mgValueTable : pieceType.egValueTable;
+            long pieces = bitBoard.getPieces(alliance, pieceType);
+            while (pieces != 0) {
+                final int square = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                positionValueScore += valueTable[square ^ flip];
             }
         }
         return positionValueScore;
@@ -182,228 +202,136 @@ public class StandardBoardEvaluator implements BoardEvaluator {
         return (Counter.count <= 10);
     }
     public static boolean isMidGame(Board board) {
+        return isMidGame(board.getBitBoard());
+    }
+    public static boolean isMidGame(final BitBoard bitBoard) {
         int pieceValueScore = 0;
-        for (final Piece piece: board.getBlackPieces()) {
-            if (piece.getPieceType().equals(Piece.PieceType.BISHOP) || piece.getPieceType().equals(Piece.PieceType.KNIGHT))
-                pieceValueScore += 1;
-            else if (piece.getPieceType().equals(Piece.PieceType.ROOK))
-                pieceValueScore += 2;
-            else if (piece.getPieceType().equals(Piece.PieceType.QUEEN))
-                pieceValueScore += 4;
-        }
-        for (final Piece piece: board.getWhitePieces()) {
-            if (piece.getPieceType().equals(Piece.PieceType.BISHOP) || piece.getPieceType().equals(Piece.PieceType.KNIGHT))
-                pieceValueScore += 1;
-            else if (piece.getPieceType().equals(Piece.PieceType.ROOK))
-                pieceValueScore += 2;
-            else if (piece.getPieceType().equals(Piece.PieceType.QUEEN))
-                pieceValueScore += 4;
+        for (final Alliance alliance : Alliance.values()) {
+            pieceValueScore += Long.bitCount(bitBoard.getPieces(alliance, Piece.PieceType.BISHOP)) +
+                    Long.bitCount(bitBoard.getPieces(alliance, Piece.PieceType.KNIGHT)) +
+                    2 * Long.bitCount(bitBoard.getPieces(alliance, Piece.PieceType.ROOK)) +
+                    4 * Long.bitCount(bitBoard.getPieces(alliance, Piece.PieceType.QUEEN));
         }
         return (pieceValueScore >= 9);
     }
 
-    private static int openingPrincipleBonus(Player player) {
+    private static int openingPrincipleBonus(final BitBoard bitBoard, final Alliance alliance) {
         if (isOpenGame()) {
-            List<Integer> pawnCols = new ArrayList<>();
             int openingPrincipleBonus = 0;
-            for (final Piece piece: player.getActivePieces()) {
-//                for (final Move move: piece.calculateLegalMove(board)) {
-//                    if (move.getDestinationCoordinate() == 28 ||
-//                        move.getDestinationCoordinate() == 29 ||
-//                        move.getDestinationCoordinate() == 36 ||
-//                        move.getDestinationCoordinate() == 37) {
-//                        openingPrincipleBonus += 2;
-//                    }
-//                }
-                if ((piece.getPieceType() == Piece.PieceType.KING && !player.isInCheck()) && piece.isFirstMove()) {
-                    if (piece.getPieceAlliance() == Alliance.BLACK) {
-                        if (piece.getPiecePosition() != 4 && !player.isCastled())
-                            openingPrincipleBonus -= 500;
-                    } else if (piece.getPieceAlliance() == Alliance.WHITE) {
-                        if (piece.getPiecePosition() != 60 && !player.isCastled())
-                            openingPrincipleBonus -= 500;
-                    }
-                }
-                else if (piece.getPieceType() == Piece.PieceType.ROOK && piece.isFirstMove()) {
-                    if (piece.getPieceAlliance() == Alliance.BLACK) {
-                        if ((piece.getPiecePosition() != 0 && piece.getPiecePosition() != 7) && !player.isCastled())
-                            openingPrincipleBonus -= 250;
-                    } else if (piece.getPieceAlliance() == Alliance.WHITE) {
-                        if ((piece.getPiecePosition() != 56 && piece.getPiecePosition() != 63) && !player.isCastled())
-                            openingPrincipleBonus -= 250;
-                    }
-                }
-                else if (piece.getPieceType() == Piece.PieceType.QUEEN) {
-                    if ((piece.getPieceAlliance() == Alliance.WHITE && piece.getPiecePosition() != 59) ||
-                            (piece.getPieceAlliance() == Alliance.BLACK && piece.getPiecePosition() != 3))
-                        openingPrincipleBonus -= 200;
-                }
-                else if (piece.getPieceType() == Piece.PieceType.BISHOP) {
-                    if ((piece.getPieceAlliance() == Alliance.WHITE && piece.getPiecePosition() == 58) ||
-                        (piece.getPieceAlliance() == Alliance.WHITE && piece.getPiecePosition() == 61) ||
-                        (piece.getPieceAlliance() == Alliance.BLACK && piece.getPiecePosition() == 2) ||
-                        (piece.getPieceAlliance() == Alliance.BLACK && piece.getPiecePosition() == 5))
-                        openingPrincipleBonus -= 200;
-                }
-                else if (piece.getPieceType() == Piece.PieceType.KNIGHT) {
-                    if ((piece.getPieceAlliance() == Alliance.WHITE && piece.getPiecePosition() == 57) ||
-                            (piece.getPieceAlliance() == Alliance.WHITE && piece.getPiecePosition() == 62) ||
-                            (piece.getPieceAlliance() == Alliance.BLACK && piece.getPiecePosition() == 1) ||
-                            (piece.getPieceAlliance() == Alliance.BLACK && piece.getPiecePosition() == 6))
-                        openingPrincipleBonus -= 30;
-                }
-                else if (piece.getPieceType() == Piece.PieceType.PAWN) {
-                    pawnCols.add(piece.getPiecePosition() % 8);
-                    if ((piece.getPieceAlliance() == Alliance.WHITE && piece.getPiecePosition() == 51) ||
-                            (piece.getPieceAlliance() == Alliance.WHITE && piece.getPiecePosition() == 52)) {
-//                        System.out.println("White Pawn penalty!");
-                        openingPrincipleBonus -= 50;
-                    }
-                    if ((piece.getPieceAlliance() == Alliance.WHITE && piece.getPiecePosition() == 19) ||
-                            (piece.getPieceAlliance() == Alliance.WHITE && piece.getPiecePosition() == 20)) {
-//                        System.out.println("White Pawn penalty!");
-                        openingPrincipleBonus += 50;
-                    }
-                    if ((piece.getPieceAlliance() == Alliance.WHITE && piece.getPiecePosition() == 27) ||
-                            (piece.getPieceAlliance() == Alliance.WHITE && piece.getPiecePosition() == 28)) {
-//                        System.out.println("White Pawn penalty!");
-                        openingPrincipleBonus += 25;
-                    }
-                    else if ((piece.getPieceAlliance() == Alliance.BLACK && piece.getPiecePosition() == 11) ||
-                            (piece.getPieceAlliance() == Alliance.BLACK && piece.getPiecePosition() == 12)) {
-//                        System.out.println("Black Pawn penalty!");
-                        openingPrincipleBonus -= 50;
-                    }
-                    if ((piece.getPieceAlliance() == Alliance.BLACK && piece.getPiecePosition() == 43) ||
-                            (piece.getPieceAlliance() == Alliance.BLACK && piece.getPiecePosition() == 44)) {
-//                        System.out.println("Black Pawn penalty!");
-                        openingPrincipleBonus += 50;
-                    }
-                    if ((piece.getPieceAlliance() == Alliance.BLACK && piece.getPiecePosition() == 35) ||
-                            (piece.getPieceAlliance() == Alliance.BLACK && piece.getPiecePosition() == 36)) {
-//                        System.out.println("Black Pawn penalty!");
-                        openingPrincipleBonus += 25;
-                    }
-                }
+            final boolean isWhite = alliance == Alliance.WHITE;
+            final boolean castled = bitBoard.isCastled(alliance);
+            final long unmoved = bitBoard.getUnmovedPieces();
+            final long king = bitBoard.getPieces(alliance, Piece.PieceType.KING);
+            if (!bitBoard.isInCheck(alliance) && (king & unmoved) != 0) {
+                if (bitBoard.getKingSquare(alliance) != (isWhite ? 60 : 4) && !castled)
+                    openingPrincipleBonus -= 500;
+            }
+            if (!castled) {
+                final long rookCorners = isWhite ? squares(56, 63) : squares(0, 7);
+                openingPrincipleBonus -= 250 * Long.bitCount(bitBoard.getPieces(alliance, Piece.PieceType.ROOK) & unmoved & ~rookCorners);
             }
-            if (!pawnCols.contains(3))   openingPrincipleBonus -= 100;
-            if (!pawnCols.contains(4))   openingPrincipleBonus -= 100;
+            openingPrincipleBonus -= 200 * Long.bitCount(bitBoard.getPieces(alliance, Piece.PieceType.QUEEN) & ~squares(isWhite ? 59 : 3));
+            openingPrincipleBonus -= 200 * Long.bitCount(bitBoard.getPieces(alliance, Piece.PieceType.BISHOP) &
+                    (isWhite ? squares(58, 61) : squares(2, 5)));
+            openingPrincipleBonus -= 30 * Long.bitCount(bitBoard.getPieces(alliance, Piece.PieceType.KNIGHT) &
+                    (isWhite ? squares(57, 62) : squares(1, 6)));
+            final long pawns = bitBoard.getPieces(alliance, Piece.PieceType.PAWN);
+            if (isWhite) {
+                openingPrincipleBonus -= 50 * Long.bitCount(pawns & squares(51, 52));
+                openingPrincipleBonus += 50 * Long.bitCount(pawns & squares(19, 20));
+                openingPrincipleBonus += 25 * Long.bitCount(pawns & squares(27, 28));
+            } else {
+                openingPrincipleBonus -= 50 * Long.bitCount(pawns & squares(11, 12));
+                openingPrincipleBonus += 50 * Long.bitCount(pawns & squares(43, 44));
+                openingPrincipleBonus += 25 * Long.bitCount(pawns & squares(35, 36));
+            }
+            if ((pawns & BitboardUtils.COLUMNS[3]) == 0)   openingPrincipleBonus -= 100;
+            if ((pawns & BitboardUtils.COLUMNS[4]) == 0)   openingPrincipleBonus -= 100;
             return openingPrincipleBonus;
         }
         return 0;
     }
-    private static int endingPrincipleBonus(Player player, Board board) {
-        if (!isMidGame(board)) {
+
+    private static long squares(final int... squares) {
+        long mask = BitboardUtils.EMPTY;
+        for (final int square : squares) {
+            mask |= BitboardUtils.squareBit(square);
+        }
+        return mask;
+    }
+
+    private static int endingPrincipleBonus(final BitBoard bitBoard, final Alliance alliance, final boolean midGame) {
+        if (!midGame) {
             int endingPrincipleBonus = 0;
-            int bishopC = 0, knightC = 0, rookC = 0, queenC = 0, bishopO = 0, knightO = 0, rookO = 0, queenO = 0;
-            for(Piece piece: player.getActivePieces()) {
-                if (piece.getPieceType() == Piece.PieceType.BISHOP) bishopC++;
-                if (piece.getPieceType() == Piece.PieceType.KNIGHT) knightC++;
-                if (piece.getPieceType() == Piece.PieceType.ROOK) rookC++;
-                if (piece.getPieceType() == Piece.PieceType.QUEEN) queenC++;
-            }
-            for(Piece piece: player.getOpponent().getActivePieces()) {
-                if (piece.getPieceType() == Piece.PieceType.BISHOP) bishopO++;
-                if (piece.getPieceType() == Piece.PieceType.KNIGHT) knightO++;
-                if (piece.getPieceType() == Piece.PieceType.ROOK) rookO++;
-                if (piece.getPieceType() == Piece.PieceType.QUEEN) queenO++;
-            }
+            final Alliance opponent = alliance.opposite();
+            final int ourPieces = Long.bitCount(bitBoard.getOccupancy(alliance) &
+                    ~bitBoard.getPieces(alliance, Piece.PieceType.PAWN) & ~bitBoard.getPieces(alliance, Piece.PieceType.KING));
+            final int theirPieces = Long.bitCount(bitBoard.getOccupancy(opponent) &
+                    ~bitBoard.getPieces(opponent, Piece.PieceType.PAWN) & ~bitBoard.getPieces(opponent, Piece.PieceType.KING));
 
-            if (bishopO + knightO + rookO + queenO == 0 && bishopC + knightC + rookC + queenC >= 1) { //KX vs lone K
-                int rdO = Math.abs((player.getOpponent().getPlayerKing().getPiecePosition()+4)/8); //rank distance of Opponent (to edge)
-                int fdO = Math.abs((player.getOpponent().getPlayerKing().getPiecePosition()+4)%8); // file distance of Opponent (to edge)
+            if (theirPieces == 0 && ourPieces >= 1) { //KX vs lone K
+                final int opponentKing = bitBoard.getKingSquare(opponent);
+                final int ourKing = bitBoard.getKingSquare(alliance);
+                int rdO = Math.abs((opponentKing+4)/8); //rank distance of Opponent (to edge)
+                int fdO = Math.abs((opponentKing+4)%8); // file distance of Opponent (to edge)
                 endingPrincipleBonus += 90 - (7 * fdO * fdO / 2 + 7 * rdO * rdO / 2); //push opponent's K towards edge
-                int rdC = Math.abs((player.getPlayerKing().getPiecePosition()+4)/8); //rank distance of Current player (to edge)
-                int fdC = Math.abs((player.getPlayerKing().getPiecePosition()+4)%8); //file distance of Current player (to edge)
+                int rdC = Math.abs((ourKing+4)/8); //rank distance of Current player (to edge)
+                int fdC = Math.abs((ourKing+4)%8); //file distance of Current player (to edge)
                 endingPrincipleBonus += 140 - 20 * ((rdO - rdC) * (rdO - rdC) + (fdO - fdC) * (fdO - fdC)); // keeps 2 Ks close
             }
             return endingPrincipleBonus;
         }
         return 0;
     }
-    private static int pawnStructureBonus(Player player, Board board) {
+    private static int pawnStructureBonus(final BitBoard bitBoard, final Alliance alliance, final boolean midGame) {
         if (!isOpenGame()) {
-            Collection<Piece> ourPieces = player.getActivePieces();
-            Collection<Piece> theirPieces = player.getOpponent().getActivePieces();
+            final long ourPawns = bitBoard.getPieces(alliance, Piece.PieceType.PAWN);
+            final long theirPawns = bitBoard.getPieces(alliance.opposite(), Piece.PieceType.PAWN);
+            final long theirPieces = bitBoard.getOccupancy(alliance.opposite());
             int psBonus = 0, numPawn = 0;
             int[] pawnPosList = new int[8];
             int[] pawnPosCol = new int[8];
-            int[] passedPawnMG = {5, 15, 25, 65, 165, 285};
-            int[] passedPawnEG = {40, 55, 75, 115, Piece.PieceType.PAWN.egPieceValue, Piece.PieceType.PAWN.egPieceValue * 2};
-            for (Piece piece : ourPieces) {
-                if (piece.getPieceType() == Piece.PieceType.PAWN) {
-                    //passedPawn
-                    int rank, col, colOpp;
-                    Vector<Integer> occupyCol = new Vector<>();
-                    rank = piece.getPiecePosition() / 8;
-                    col = piece.getPiecePosition() % 8;
-                    for (Piece pieceOpp : theirPieces) {
-                        if (pieceOpp.getPieceType() == Piece.PieceType.PAWN) {
-                            colOpp = pieceOpp.getPiecePosition() % 8;
-//                            if (colOpp == 0) {
-//                                occupyCol.add(0);
-//                                occupyCol.add(1);
-//                            } else if (colOpp == 7) {
-//                                occupyCol.add(7);
-//                                occupyCol.add(6);
-//                            } else {
-                                occupyCol.add(colOpp);
-                                occupyCol.add(colOpp + 1);
-                                occupyCol.add(colOpp - 1);
-//                            }
-                        }
-                    }
-                    if (!occupyCol.contains(col)) {
-                        if (isMidGame(board)) {
-                            if (player.getAlliance() == Alliance.BLACK){
-                                psBonus += passedPawnMG[rank - 1];
-                            }
-                            else {
-                                psBonus += passedPawnMG[6-rank];
-                            }
-                        } else {
-                            if (player.getAlliance() == Alliance.BLACK){
-                                psBonus += passedPawnEG[rank - 1];
-                            }
-                            else {
-                                psBonus += passedPawnEG[6-rank];
-                            }
-                        }
-                    } else {
-                        for (Piece piece1 : theirPieces) {
-                            if (piece1.getPieceType() == Piece.PieceType.PAWN) {
-                                if (piece1.getPiecePosition() % 8 <= col + 1 && piece1.getPiecePosition() % 8 >= col - 1) {
-                                    if ((player.getAlliance() == Alliance.WHITE && rank <= piece1.getPiecePosition() / 8) ||
-                                            (player.getAlliance() == Alliance.BLACK && rank >= piece1.getPiecePosition() / 8)) {
-                                        if (isMidGame(board)) {
-                                            if(player.getAlliance() == Alliance.BLACK) {
-                                                psBonus += passedPawnMG[rank - 1];
-                                            }
-                                            else {
-                                                psBonus += passedPawnMG[6-rank];
-                                            }
-                                        } else {
-                                            if (player.getAlliance() == Alliance.BLACK){
-                                                psBonus += passedPawnEG[rank - 1];
-                                            }
-                                            else {
-                                                psBonus += passedPawnEG[6-rank];
-                                            }
-                                        }
-                                    }
-                                }
+            //các cột có tốt đối phương hoặc kề cột có tốt đối phương
+            int occupyCol = 0;
+            long remaining = theirPawns;
+            while (remaining != 0) {
+                final int colOpp = Long.numberOfTrailingZeros(remaining) % 8;
+                remaining &= remaining - 1;
+                occupyCol |= (1 << colOpp) | (1 << (colOpp + 1)) | (colOpp > 0 ? 1 << (colOpp - 1) : 0);
+            }
+            remaining = ourPawns;
+            while (remaining != 0) {
+                final int square = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                //passedPawn
+                final int rank = square / 8;
+                final int col = square % 8;
+                final int passedPawnBonus = alliance == Alliance.BLACK ?
+                        (midGame ? PASSED_PAWN_MG[rank - 1] : PASSED_PAWN_EG[rank - 1]) :
+                        (midGame ? PASSED_PAWN_MG[6 - rank] : PASSED_PAWN_EG[6 - rank]);
+                if ((occupyCol & (1 << col)) == 0) {
+                    psBonus += passedPawnBonus;
+                } else {
+                    long opponentPawns = theirPawns;
+                    while (opponentPawns != 0) {
+                        final int opponentSquare = Long.numberOfTrailingZeros(opponentPawns);
+                        opponentPawns &= opponentPawns - 1;
+                        if (opponentSquare % 8 <= col + 1 && opponentSquare % 8 >= col - 1) {
+                            if ((alliance == Alliance.WHITE && rank <= opponentSquare / 8) ||
+                                    (alliance == Alliance.BLACK && rank >= opponentSquare / 8)) {
+                                psBonus += passedPawnBonus;
                             }
                         }
                     }
-                    //Add position to pawn pos list
-                    pawnPosList[numPawn] = piece.getPiecePosition();
-                    pawnPosCol[numPawn] = pawnPosList[numPawn] % 8;
-                    numPawn++;
                 }
+                //Add position to pawn pos list
+                pawnPosList[numPawn] = square;
+                pawnPosCol[numPawn] = pawnPosList[numPawn] % 8;
+                numPawn++;
             }
 
             Arrays.sort(pawnPosList);
-            if (player.getAlliance() == Alliance.WHITE) {
+            if (alliance == Alliance.WHITE) {
                 for(int i = 0; i < pawnPosList.length / 2; i++)
                 {
                     int temp = pawnPosList[i];
@@ -412,24 +340,24 @@ public class StandardBoardEvaluator implements BoardEvaluator {
                 }
             }
             //Backward Pawn
-            if (player.getAlliance() == Alliance.BLACK) {
+            if (alliance == Alliance.BLACK) {
                 if ((pawnPosList[0] / 8 + 1) < pawnPosList[1] / 8 || (pawnPosList[0] / 8  == pawnPosList[1] / 8 && (pawnPosList[0] / 8 + 1) < pawnPosList[2] / 8)) {
-                    if (isMidGame(board)) psBonus -= 20;
+                    if (midGame) psBonus -= 20;
                     else psBonus -= 50;
                 }
             } else {
                 if ((pawnPosList[0] / 8 + 1) > pawnPosList[1] / 8 || (pawnPosList[0] / 8  == pawnPosList[1] / 8 && (pawnPosList[0] / 8 + 1) > pawnPosList[2] / 8)) {
-                            if (isMidGame(board)) psBonus -= 20;
+                            if (midGame) psBonus -= 20;
                             else psBonus -= 50;
                 }
             }
             //Doubles Pawn & Connected Pawn
-            if (player.getAlliance() == Alliance.BLACK) {
+            if (alliance == Alliance.BLACK) {
                 if (numPawn > 1) {
                     for (int i = 1; i <= numPawn ; i++) {
                         for (int j = 2; j <= numPawn ; j++) {
                             if (pawnPosList[i - 1] == pawnPosList[j - 1] + 8 || pawnPosList[i - 1] == pawnPosList[j - 1] - 8) {
-                                if (isMidGame(board)) psBonus -= 150;
+                                if (midGame) psBonus -= 150;
                                 else psBonus -= 200;
                             } else if (pawnPosList[i - 1] + 7 == pawnPosList[j - 1] || pawnPosList[i - 1] + 9 == pawnPosList[j - 1]) {
                                 int connectedPawnRank = pawnPosList[j - 1] / 8;
@@ -446,7 +374,7 @@ public class StandardBoardEvaluator implements BoardEvaluator {
                     for (int i = 1; i <= numPawn; i++) {
                         for (int j = 2; j <= numPawn; j++) {
                             if (pawnPosList[i - 1] == pawnPosList[j - 1] + 8 || pawnPosList[i - 1] == pawnPosList[j - 1] - 8) {
-                                if (isMidGame(board)) psBonus -= 50;
+                                if (midGame) psBonus -= 50;
                                 else psBonus -= 100;
                             } else if (pawnPosList[i - 1] - 7 == pawnPosList[j - 1] || pawnPosList[i - 1] - 9 == pawnPosList[j - 1]) {
                                 int connectedPawnRank = pawnPosList[j - 1] / 8;
@@ -460,10 +388,10 @@ public class StandardBoardEvaluator implements BoardEvaluator {
                 }
             }
             //Shelter for castled King
-            if (player.getPlayerKing().isCastled() && isMidGame(board)) {
-                int kingPos = player.getPlayerKing().getPiecePosition();
+            if (bitBoard.isCastled(alliance) && midGame) {
+                int kingPos = bitBoard.getKingSquare(alliance);
                 int kingPosCol = kingPos % 8;
-                if (player.getAlliance() == Alliance.BLACK) {
+                if (alliance == Alliance.BLACK) {
                     if (Arrays.stream(pawnPosList).anyMatch(x -> x == kingPos + 7) ||
                             Arrays.stream(pawnPosList).anyMatch(x -> x == kingPos + 9) ||
                             Arrays.stream(pawnPosList).anyMatch(x -> x == kingPos + 8)) {
@@ -493,65 +421,47 @@ public class StandardBoardEvaluator implements BoardEvaluator {
                 }
             }
             //Double Attack Pawn
-            List<Integer> oppPiecePos = new ArrayList<>();
-            for (Piece piece: theirPieces)  oppPiecePos.add(piece.getPiecePosition());
             for (int i: pawnPosList) {
-                if (player.getAlliance() == Alliance.BLACK) {
-                    if (oppPiecePos.contains(i+7) && oppPiecePos.contains(i+9))     psBonus+=100;
+                if (alliance == Alliance.BLACK) {
+                    if (isOccupied(theirPieces, i+7) && isOccupied(theirPieces, i+9))     psBonus+=100;
                 }
                 else {
-                    if (oppPiecePos.contains(i-7) && oppPiecePos.contains(i-9))     psBonus+=100;
+                    if (isOccupied(theirPieces, i-7) && isOccupied(theirPieces, i-9))     psBonus+=100;
                 }
             }
-//            System.out.print("Pawn list: ");
-//            for (int i=0; i<numPawn; i++) {
-//                System.out.print(pawnPosList[i] + " ");
-//            }
-//            System.out.println();
             return psBonus;
         }
         return 0;
     }
-    private int triviaBonus(Player player, Board board) {
+
+    private static boolean isOccupied(final long pieces, final int square) {
+        return square >= 0 && square < 64 && BitboardUtils.isSet(pieces, square);
+    }
+
+    private int triviaBonus(final BitBoard bitBoard, final Alliance alliance, final boolean midGame) {
         int triviaBonus = 0;
-        Collection<Piece> ourPieces = player.getActivePieces();
-        Collection<Piece> theirPieces = player.getOpponent().getActivePieces();
-        int rookFile = 0;
+        final long ourPawns = bitBoard.getPieces(alliance, Piece.PieceType.PAWN);
+        final long theirPawns = bitBoard.getPieces(alliance.opposite(), Piece.PieceType.PAWN);
+        final long rooks = bitBoard.getPieces(alliance, Piece.PieceType.ROOK);
         //Rook on open/closed file
-        for (Piece piece : ourPieces) {
-            if (piece.getPieceType() == Piece.PieceType.ROOK) {
-                rookFile = piece.getPiecePosition() % 8;
-            }
-        }
-        List<Integer> pawnPos = new ArrayList<>();
-        for (Piece piece : ourPieces) {
-            if (piece.getPieceType() == Piece.PieceType.PAWN) {
-                pawnPos.add(piece.getPiecePosition());
-            }
-        }
-        if (!pawnPos.contains(rookFile)) {
-            for (Piece piece: theirPieces) {
-                if (piece.getPieceType() == Piece.PieceType.PAWN) {
-                    pawnPos.add(piece.getPiecePosition());
-                }
-            }
-            if (!pawnPos.contains(rookFile)) {
-                if (isMidGame(board))   triviaBonus += 50;
-                else                    triviaBonus += 30;
+        final int rookFile = rooks == 0 ? 0 : (63 - Long.numberOfLeadingZeros(rooks)) % 8;
+        if (!BitboardUtils.isSet(ourPawns, rookFile)) {
+            if (!BitboardUtils.isSet(ourPawns | theirPawns, rookFile)) {
+                if (midGame)   triviaBonus += 50;
+                else           triviaBonus += 30;
             }
             else {
-                if (isMidGame(board))   triviaBonus += 20;
-                else                    triviaBonus += 10;
+                if (midGame)   triviaBonus += 20;
+                else           triviaBonus += 10;
             }
         }
         else {
-            if (isMidGame(board))   triviaBonus += 10;
-            else                    triviaBonus += 5;
+            if (midGame)   triviaBonus += 10;
+            else           triviaBonus += 5;
         }
-        if(7<=Counter.count && Counter.count <=20 && !player.isCastled()) {
+        if(7<=Counter.count && Counter.count <=20 && !bitBoard.isCastled(alliance)) {
             triviaBonus -= 200;
         }
         return triviaBonus;
     }
 }
-
@@ -0,0 +1,108 @@
+package com.chess.engine.player.al;
+
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.pieces.Piece;
+
+public class StandardExtensionPolicy implements ExtensionPolicy {
+    // Keo dai 1 tang cho nuoc chieu khong mat quan, nuoc an lai tren o doi thu vua an, va nuoc trong bang chuyen vi ma moi nuoc khac
+    // deu kem hon ro rang (singular). Tong so tang keo dai tren mot nhanh khong qua nua do sau danh nghia,
+    // de chuoi chieu lien tiep khong lam cay no ra.
+
+    private static final int PAWN_VALUE = Piece.PieceType.PAWN.mgPieceValue * StandardBoardEvaluator.PIECE_WEIGHT;
+
+    private final boolean checkExtension;
+    private final boolean recaptureExtension;
+    private final boolean singularExtension;
+    private final int singularMinDepth;
+    private final int singularMargin;         // moi tang con lai
+
+    private StandardExtensionPolicy(final Builder builder) {
+        this.checkExtension = builder.checkExtension;
+        this.recaptureExtension = builder.recaptureExtension;
+        this.singularExtension = builder.singularExtension;
+        this.singularMinDepth = builder.singularMinDepth;
+        this.singularMargin = builder.singularMargin;
+    }
+
+    @Override
+    public int extension(final BitBoard bitBoard, final int move, final int previousMove, final boolean givesCheck) {
+        // Chi keo dai nuoc chieu an toan: quan chieu bi an loi thi doi thu tu giai quyet, khong can tim them
+        if (this.checkExtension && givesCheck &&
+                bitBoard.exchangeValue(PackedMove.getTo(move), bitBoard.getSideToMove()) == 0) {
+            return 1;
+        }
+        if (this.recaptureExtension && PackedMove.isCapture(move) && previousMove != PackedMove.NULL_MOVE &&
+                PackedMove.isCapture(previousMove) && PackedMove.getTo(move) == PackedMove.getTo(previousMove)) {
+            return 1;
+        }
+        return 0;
+    }
+
+    // Muc trong bang phai tu tim kiem du sau (toi da kem 3 tang) thi diem moi dang tin
+    @Override
+    public boolean isSingularCandidate(final int depth, final int tableDepth) {
+        return this.singularExtension && depth >= this.singularMinDepth && tableDepth >= depth - 3;
+    }
+
+    @Override
+    public int singularMargin(final int depth) {
+        return this.singularMargin * depth;
+    }
+
+    @Override
+    public int maxPathExtensions(final int rootDepth) {
+        return rootDepth / 2;
+    }
+
+    @Override
+    public String toString() {
+        return "check " + (this.checkExtension ? "on" : "off") + " recapture " + (this.recaptureExtension ? "on" : "off") +
+                " singular " + (this.singularExtension ? "depth>=" + this.singularMinDepth + " margin " + this.singularMargin : "off");
+    }
+
+    public static class Builder {
+        boolean checkExtension;
+        boolean recaptureExtension;
+        boolean singularExtension;
+        int singularMinDepth;
+        int singularMargin;
+
+        public Builder() {
+            this.checkExtension = true;
+            this.recaptureExtension = true;
+            this.singularExtension = true;
+            this.singularMinDepth = 6;
+            this.singularMargin = PAWN_VALUE / 16;
+        }
+
+        public Builder setCheckExtension(final boolean checkExtension) {
+            this.checkExtension = checkExtension;
+            return this;
+        }
+
+        public Builder setRecaptureExtension(final boolean recaptureExtension) {
+            this.recaptureExtension = recaptureExtension;
+            return this;
+        }
+
+        public Builder setSingularExtension(final boolean singularExtension) {
+            this.singularExtension = singularExtension;
+            return this;
+        }
+
+        public Builder setSingularMinDepth(final int singularMinDepth) {
+            this.singularMinDepth = singularMinDepth;
+            return this;
+        }
+
+        public Builder setSingularMargin(final int singularMargin) {
+            this.singularMargin = singularMargin;
+            return this;
+        }
+
+        public StandardExtensionPolicy build() {
+            return new StandardExtensionPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.chess.engine.player.al;
+
+public class TimeManager {
+    // Chia thoi gian cho mot nuoc di: moc mem (softLimit) quyet dinh co bat dau vong lap sau sau khong,
+    // moc cung (hardLimit) bat tim kiem dung ngay ca khi dang giua vong lap.
+
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    private static final long MOVE_OVERHEAD = 50;        // ms de GUI cap nhat ban co, tranh het gio
+    private static final long MIN_THINK_TIME = 10;
+    // Nuoc tot nhat khong doi qua nhieu vong lap thi dung som hon: he so nhan voi softLimit
+    private static final double[] STABILITY_SCALE = {1.0, 0.8, 0.65, 0.5, 0.4};
+
+    private final SearchLimits limits;
+    private final long startTime;
+    private final long softLimit;
+    private final long hardLimit;
+
+    public TimeManager(final SearchLimits limits) {
+        this.limits = limits;
+        this.startTime = System.currentTimeMillis();
+        if (limits.getMoveTime() > 0) {
+            this.softLimit = limits.getMoveTime();
+            this.hardLimit = limits.getMoveTime();
+        } else if (limits.getTimeLeft() > 0) {
+            final long available = Math.max(MIN_THINK_TIME, limits.getTimeLeft() - MOVE_OVERHEAD);
+            final int movesToGo = limits.getMovesToGo() > 0 ? limits.getMovesToGo() : DEFAULT_MOVES_TO_GO;
+            final long base = available / movesToGo + limits.getIncrement() * 3 / 4;
+            this.softLimit = Math.max(MIN_THINK_TIME, Math.min(base, available / 2));
+            this.hardLimit = Math.max(this.softLimit, Math.min(base * 4, available / 3));
+        } else {
+            this.softLimit = Long.MAX_VALUE;
+            this.hardLimit = Long.MAX_VALUE;
+        }
+    }
+
+    public long elapsed() {
+        return System.currentTimeMillis() - this.startTime;
+    }
+
+    // Goi trong luc tim kiem: het gio cung hoac du so nut thi phai dung
+    public boolean isHardLimitReached(final long nodes) {
+        return (this.limits.getNodes() > 0 && nodes >= this.limits.getNodes()) ||
+                (this.hardLimit != Long.MAX_VALUE && elapsed() >= this.hardLimit);
+    }
+
+    // Goi giua hai vong lap: vong sau thuong ton nhieu thoi gian hon tat ca cac vong truoc cong lai,
+    // nen chi bat dau khi con du mot nua moc mem
+    public boolean canStartIteration(final int depth, final int stableIterations, final long nodes) {
+        if (depth > this.limits.getDepth() || isHardLimitReached(nodes)) {
+            return false;
+        }
+        if (this.softLimit == Long.MAX_VALUE) {
+            return true;
+        }
+        final double scale = STABILITY_SCALE[Math.min(stableIterations, STABILITY_SCALE.length - 1)];
+        return elapsed() < this.softLimit * scale / 2;
+    }
+}
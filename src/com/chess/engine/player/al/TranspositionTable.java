@@ -0,0 +1,117 @@
+package com.chess.engine.player.al;
+
+import com.chess.engine.board.PackedMove;
+
+import java.util.Arrays;
+
+public class TranspositionTable {
+    // Bang luu ket qua tim kiem theo khoa Zobrist. Moi o gom 2 long: (khoa ^ du lieu) va du lieu, nen khong can khoa
+    // giua cac luong: o bi ghi do dang thi khoa tinh lai khong khop va coi nhu khong co.
+    // Du lieu trong mot long: bit 0-15 nuoc di (PackedMove), bit 16-47 diem, bit 48-55 do sau, bit 56-57 loai diem,
+    // bit 58-63 tuoi (lan tim kiem da ghi o nay).
+
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;    // diem >= gia tri luu (cat beta o nut max)
+    public static final int UPPER = 3;    // diem <= gia tri luu (khong nuoc nao vuot alpha)
+    public static final long MISS = 0L;   // loai diem luon khac 0 nen o co du lieu khong bao gio bang 0
+
+    private static final int ENTRIES_PER_BUCKET = 4;
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int BUCKET_LONGS = ENTRIES_PER_BUCKET * LONGS_PER_ENTRY;   // 64 byte, vua mot cache line
+    private static final long MAX_BUCKETS = 1L << 27;   // mang long toi da ~2^31 phan tu
+    private static final int AGE_MASK = 0x3F;
+    private static final int AGE_WEIGHT = 8;   // mot lan tim kiem cu tinh bang 8 tang khi chon o de ghi de
+
+    private final long[] entries;
+    private final long bucketMask;
+    private int age;
+
+    public TranspositionTable(final int sizeMb) {
+        final long buckets = Long.highestOneBit(Math.min(MAX_BUCKETS,
+                Math.max(1L, (long) sizeMb * 1024 * 1024 / (BUCKET_LONGS * Long.BYTES))));
+        this.entries = new long[(int) (buckets * BUCKET_LONGS)];
+        this.bucketMask = buckets - 1;
+        this.age = 0;
+    }
+
+    // Goi truoc moi lan tim kiem moi de cac o cua lan truoc duoc uu tien ghi de
+    public void newSearch() {
+        this.age = (this.age + 1) & AGE_MASK;
+    }
+
+    public void clear() {
+        Arrays.fill(this.entries, 0L);
+        this.age = 0;
+    }
+
+    public long probe(final long key) {
+        final int base = bucketBase(key);
+        for (int i = base; i < base + BUCKET_LONGS; i += LONGS_PER_ENTRY) {
+            final long data = this.entries[i + 1];
+            if (data != MISS && (this.entries[i] ^ data) == key) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    // Ghi de o cung khoa; neu khong co thi chon o nong nhat/cu nhat trong bucket
+    public void store(final long key, final int move, final int score, final int depth, final int bound) {
+        final int base = bucketBase(key);
+        int replace = base;
+        int worstQuality = Integer.MAX_VALUE;
+        for (int i = base; i < base + BUCKET_LONGS; i += LONGS_PER_ENTRY) {
+            final long data = this.entries[i + 1];
+            if (data == MISS) {
+                replace = i;
+                break;
+            }
+            if ((this.entries[i] ^ data) == key) {
+                // khong co nuoc di tot moi (vd. nut UPPER) thi giu nuoc cu de con dung sap xep nuoc di
+                final int bestMove = move != PackedMove.NULL_MOVE ? move : getMove(data);
+                write(i, key, pack(bestMove, score, depth, bound));
+                return;
+            }
+            final int quality = getDepth(data) - AGE_WEIGHT * ((this.age - getAge(data)) & AGE_MASK);
+            if (quality < worstQuality) {
+                worstQuality = quality;
+                replace = i;
+            }
+        }
+        write(replace, key, pack(move, score, depth, bound));
+    }
+
+    private void write(final int index, final long key, final long data) {
+        this.entries[index + 1] = data;
+        this.entries[index] = key ^ data;
+    }
+
+    private int bucketBase(final long key) {
+        return (int) (key & this.bucketMask) * BUCKET_LONGS;
+    }
+
+    private long pack(final int move, final int score, final int depth, final int bound) {
+        return (move & 0xFFFFL) | ((score & 0xFFFFFFFFL) << 16) | ((long) Math.min(depth, 0xFF) << 48) |
+                ((long) bound << 56) | ((long) this.age << 58);
+    }
+
+    public static int getMove(final long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int getScore(final long data) {
+        return (int) (data >>> 16);
+    }
+
+    public static int getDepth(final long data) {
+        return (int) ((data >>> 48) & 0xFF);
+    }
+
+    public static int getBound(final long data) {
+        return (int) ((data >>> 56) & 0x3);
+    }
+
+    private static int getAge(final long data) {
+        return (int) (data >>> 58);
+    }
+}
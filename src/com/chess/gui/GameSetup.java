@@ -2,6 +2,8 @@ package com.chess.gui;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.player.Player;
+import com.chess.engine.player.al.ParallelSearch;
+import com.chess.engine.player.al.SearchLimits;
 import com.chess.gui.Table.PlayerType;
 
 import javax.swing.*;
@@ -14,6 +16,9 @@ class GameSetup extends JDialog {
     private PlayerType whitePlayerType;
     private PlayerType blackPlayerType;
     private static JSpinner searchDepthSpinner;
+    private static JSpinner moveTimeSpinner;
+    private static JSpinner searchThreadsSpinner;
+    private static JComboBox<ParallelSearch> parallelSearchBox;
 
     private static final String HUMAN_TEXT = "Human";
     private static final String COMPUTER_TEXT = "Computer";
@@ -47,6 +52,13 @@ class GameSetup extends JDialog {
 
         myPanel.add(new JLabel("Search"));
         searchDepthSpinner = addLabeledSpinner(myPanel, "Search Depth", new SpinnerNumberModel(6, 0, Integer.MAX_VALUE, 1));
+        // 0 = khong gioi han thoi gian, tim den het do sau (mac dinh, giong truoc khi co gioi han thoi gian)
+        moveTimeSpinner = addLabeledSpinner(myPanel, "Move Time (ms)", new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 500));
+        // Mac dinh 1 luong: tim nhieu luong khong lap lai duoc ket qua, chi bat khi nguoi dung chon
+        searchThreadsSpinner = addLabeledSpinner(myPanel, "Search Threads", new SpinnerNumberModel(1, 1, 256, 1));
+        parallelSearchBox = new JComboBox<>(ParallelSearch.values());
+        myPanel.add(new JLabel("Parallel Search"));
+        myPanel.add(parallelSearchBox);
 
         final JButton cancelButton = new JButton("Cancel");
         final JButton okButton = new JButton("OK");
@@ -108,4 +120,23 @@ class GameSetup extends JDialog {
     public static int getSearchDepth() {
         return (Integer) searchDepthSpinner.getValue();
     }
+
+    public static int getMoveTime() {
+        return (Integer) moveTimeSpinner.getValue();
+    }
+
+    public static int getSearchThreads() {
+        return (Integer) searchThreadsSpinner.getValue();
+    }
+
+    public static ParallelSearch getParallelSearch() {
+        return (ParallelSearch) parallelSearchBox.getSelectedItem();
+    }
+
+    public static SearchLimits getSearchLimits() {
+        return new SearchLimits.Builder()
+                .setDepth(getSearchDepth())
+                .setMoveTime(getMoveTime())
+                .build();
+    }
 }
\ No newline at end of file
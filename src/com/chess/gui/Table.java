@@ -181,7 +181,7 @@ public class Table extends Observable {
         public void update(final Observable o, final Object arg) {
             Table table = Table.get();
             Player currentPlayer = table.getGameBoard().currentPlayer();
-            if (table.isThreefoldRepeated()){
+            if (table.getGameBoard().isThreefoldRepetition()){
                 System.out.println("Threefold repeated! Game draw!");
                 return;
             }
@@ -189,14 +189,15 @@ public class Table extends Observable {
                 System.out.println("Not enough sufficient pieces to win! Game draw!");
                 return;
             }
-            if (table.isFiftyMoveNoProgress()){
-                System.out.println("Game draw due to 50 move rule");
-                return;
-            }
+            // Chieu het o nua nuoc thu 100 van la thang, nen xet truoc luat 50 nuoc
             if (currentPlayer.isInCheckmate()){
                 System.out.println("Game over, " + currentPlayer.getClass().getSimpleName() + " is in checkmate!");
                 return;
             }
+            if (table.getGameBoard().isFiftyMoveDraw()){
+                System.out.println("Game draw due to 50 move rule");
+                return;
+            }
             if (currentPlayer.isInStalemate()){
                 System.out.println("Game over, " + currentPlayer.getClass().getSimpleName() + " is in stalemate!");
                 return;
@@ -208,27 +209,6 @@ public class Table extends Observable {
         }
     }
 
-    private boolean isThreefoldRepeated(){
-        if (this.moveLog.size() < 12) return false;
-        List<Move> moveList = new ArrayList<>(getMoveLog().getMoves());
-        Collections.reverse(moveList);
-        return moveList.get(0).equals(moveList.get(4)) && moveList.get(0).equals(moveList.get(8)) &&
-                moveList.get(1).equals(moveList.get(5)) && moveList.get(1).equals(moveList.get(9)) &&
-                moveList.get(2).equals(moveList.get(6)) && moveList.get(2).equals(moveList.get(10)) &&
-                moveList.get(3).equals(moveList.get(7)) && moveList.get(3).equals(moveList.get(11));
-    }
-
-    private boolean isFiftyMoveNoProgress(){
-        if (this.moveLog.size() < 100) return false;
-        List<Move> moveList = new ArrayList<>(getMoveLog().getMoves());
-        Collections.reverse(moveList);
-        for (int recentMovePosition = 0; recentMovePosition < 100; recentMovePosition ++){
-            Move recentMove = moveList.get(recentMovePosition);
-            if (recentMove instanceof Move.AttackMove || recentMove instanceof Move.PawnMove) return false;
-        }
-        return true;
-    }
-
     public void updateGameBoard(final Board board) {
         this.chessBoard = board;
     }
@@ -256,7 +236,8 @@ public class Table extends Observable {
         }
         @Override
         protected Move doInBackground() throws Exception {
-            final MoveStrategy miniMax = new MiniMax(GameSetup.getSearchDepth());
+            final MoveStrategy miniMax = new MiniMax(GameSetup.getSearchLimits(), GameSetup.getSearchThreads(),
+                    GameSetup.getParallelSearch());
             final Move bestMove = miniMax.execute(Table.get().getGameBoard());
             return bestMove;
         }
@@ -1,9 +1,13 @@
 package com.chess.pgn;
 
+import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.BitboardUtils;
 import com.chess.engine.board.BoardUtils;
-import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.*;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
 public class FenUtilities {
@@ -11,8 +15,84 @@ public class FenUtilities {
         throw new RuntimeException("Not instantiable!");
 
     }
-    public static Board createGameFromFEN(final String string) {
-        return null;
+    public static Board createGameFromFEN(final String fenString) {
+        final String[] fenPartitions = fenString.trim().split("\\s+");
+        if (fenPartitions.length < 4) {
+            throw new RuntimeException("Invalid FEN string: " + fenString);
+        }
+        final String castleText = fenPartitions[2];
+        final Map<Integer, Piece> pieces = parseBoardText(fenPartitions[0], castleText);
+        final Board.Builder builder = new Board.Builder();
+        for (final Piece piece : pieces.values()) {
+            builder.setPiece(piece);
+        }
+        final Alliance moveMaker = parseMoveMaker(fenPartitions[1]);
+        builder.setMoveMaker(moveMaker);
+        // FEN ghi o phia sau con tot vua di 2 o, Board luu chinh con tot do
+        if (!fenPartitions[3].equals("-")) {
+            final int enPassantSquare = BoardUtils.getCoordinateAtPosition(fenPartitions[3]);
+            final Piece enPassantPawn = pieces.get(enPassantSquare - BitboardUtils.pawnAdvance(moveMaker));
+            if (enPassantPawn instanceof Pawn pawn) {
+                builder.setEnPassantPawn(pawn);
+            }
+        }
+        if (fenPartitions.length > 4) {
+            builder.setHalfmoveClock(Integer.parseInt(fenPartitions[4]));
+        }
+        return builder.build();
+    }
+
+    private static Map<Integer, Piece> parseBoardText(final String boardText, final String castleText) {
+        final Map<Integer, Piece> pieces = new HashMap<>();
+        int tile = 0;
+        for (final char c : boardText.toCharArray()) {
+            if (c == '/') {
+                continue;
+            }
+            if (Character.isDigit(c)) {
+                tile += c - '0';
+                continue;
+            }
+            if (tile >= BoardUtils.NUM_TILES) {
+                throw new RuntimeException("Invalid FEN board: " + boardText);
+            }
+            final Alliance alliance = Character.isUpperCase(c) ? Alliance.WHITE : Alliance.BLACK;
+            pieces.put(tile, createPiece(Character.toLowerCase(c), tile, alliance, castleText));
+            tile++;
+        }
+        if (tile != BoardUtils.NUM_TILES) {
+            throw new RuntimeException("Invalid FEN board: " + boardText);
+        }
+        return pieces;
+    }
+
+    // Quyen nhap thanh trong FEN duoc doi thanh co "chua di" cua vua va xe, giong nhu Board dang dung
+    private static Piece createPiece(final char pieceChar, final int tile, final Alliance alliance, final String castleText) {
+        final boolean isWhite = alliance.isWhite();
+        return switch (pieceChar) {
+            case 'p' -> new Pawn(tile, alliance, isWhite ? BoardUtils.SECOND_RANK[tile] : BoardUtils.SEVENTH_RANK[tile]);
+            case 'n' -> new Knight(tile, alliance);
+            case 'b' -> new Bishop(tile, alliance);
+            case 'q' -> new Queen(tile, alliance);
+            case 'r' -> new Rook(tile, alliance,
+                    (tile == (isWhite ? 63 : 7) && castleText.contains(isWhite ? "K" : "k")) ||
+                    (tile == (isWhite ? 56 : 0) && castleText.contains(isWhite ? "Q" : "q")));
+            case 'k' -> {
+                final boolean kingSideCastleCapable = castleText.contains(isWhite ? "K" : "k");
+                final boolean queenSideCastleCapable = castleText.contains(isWhite ? "Q" : "q");
+                yield new King(tile, alliance, (kingSideCastleCapable || queenSideCastleCapable) && tile == (isWhite ? 60 : 4),
+                        false, kingSideCastleCapable, queenSideCastleCapable);
+            }
+            default -> throw new RuntimeException("Invalid FEN piece: " + pieceChar);
+        };
+    }
+
+    private static Alliance parseMoveMaker(final String moveMakerText) {
+        return switch (moveMakerText) {
+            case "w" -> Alliance.WHITE;
+            case "b" -> Alliance.BLACK;
+            default -> throw new RuntimeException("Invalid FEN move maker: " + moveMakerText);
+        };
     }
     public static String createFENFromGame(final Board board) {
         return calculateBoardText(board) + " " +